@@ -0,0 +1,61 @@
+package dev.jesusjimenezg.kata.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET on top of a precomputed ETag (see
+ * {@link dev.jesusjimenezg.kata.service.EntityTags}): when {@code If-None-Match}
+ * matches, answers 304 without calling {@code body}, so the query behind it
+ * never runs. Without a tag the body is simply returned. Tags are only given
+ * once the request is known to succeed (the resource exists and the caller may
+ * read it), as a 304 must not hide a 403 or 404.
+ */
+final class ConditionalResponses {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> of(String etag, String ifNoneMatch, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(body.get());
+    }
+
+    /**
+     * For reads that can only be checked by loading them: {@code body} has already
+     * been loaded (and any 403 or 404 thrown), so a match only saves sending it.
+     * {@code etag} has to be taken before loading.
+     */
+    static <T> ResponseEntity<T> ofLoaded(String etag, String ifNoneMatch, T body) {
+        return of(etag, ifNoneMatch, () -> body);
+    }
+
+    /** Weak comparison of {@code etag} against each tag of {@code If-None-Match}, as GET requires. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
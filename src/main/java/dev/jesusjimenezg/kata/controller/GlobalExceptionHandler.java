@@ -1,5 +1,6 @@
 package dev.jesusjimenezg.kata.controller;
 
+import dev.jesusjimenezg.kata.service.ReservationConflicts;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -47,6 +48,8 @@ public class GlobalExceptionHandler {
         if (cause instanceof ConstraintViolationException constraint
                 && "uq_resource_name".equals(constraint.getConstraintName())) {
             message = "Resource name already exists";
+        } else if (ReservationConflicts.isOverlap(ex)) {
+            message = ReservationConflicts.OVERLAP_MESSAGE;
         }
         return buildResponse(HttpStatus.CONFLICT, message);
     }
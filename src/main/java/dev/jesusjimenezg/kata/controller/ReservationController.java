@@ -1,8 +1,22 @@
 package dev.jesusjimenezg.kata.controller;
 
+import dev.jesusjimenezg.kata.dto.AutoAssignReservationRequest;
+import dev.jesusjimenezg.kata.dto.AvailabilityMatrix;
 import dev.jesusjimenezg.kata.dto.AvailabilitySlot;
+import dev.jesusjimenezg.kata.dto.BatchReservationRequest;
+import dev.jesusjimenezg.kata.dto.BatchReservationResponse;
+import dev.jesusjimenezg.kata.dto.CursorPage;
+import dev.jesusjimenezg.kata.dto.RecurringReservationRequest;
+import dev.jesusjimenezg.kata.dto.RecurringReservationResponse;
 import dev.jesusjimenezg.kata.dto.ReservationRequest;
 import dev.jesusjimenezg.kata.dto.ReservationResponse;
+import dev.jesusjimenezg.kata.dto.ResourceAvailability;
+import dev.jesusjimenezg.kata.dto.SeriesCancellationResponse;
+import dev.jesusjimenezg.kata.dto.SlotSuggestion;
+import dev.jesusjimenezg.kata.repository.ReservationExportFilter;
+import dev.jesusjimenezg.kata.service.AvailabilitySearchService;
+import dev.jesusjimenezg.kata.service.EntityTags;
+import dev.jesusjimenezg.kata.service.ReservationExportService;
 import dev.jesusjimenezg.kata.service.ReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,9 +26,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,10 +39,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -37,9 +57,17 @@ import java.util.UUID;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final AvailabilitySearchService availabilitySearchService;
+    private final ReservationExportService exportService;
+    private final EntityTags entityTags;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService,
+            AvailabilitySearchService availabilitySearchService, ReservationExportService exportService,
+            EntityTags entityTags) {
         this.reservationService = reservationService;
+        this.availabilitySearchService = availabilitySearchService;
+        this.exportService = exportService;
+        this.entityTags = entityTags;
     }
 
     @PostMapping
@@ -57,60 +85,161 @@ public class ReservationController {
                 .body(reservationService.create(request, userDetails));
     }
 
+    @PostMapping("/auto-assign")
+    @Operation(summary = "Reserve any free resource of a type", description = "Picks a free active resource of the given type and reserves it for the window in one call.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Reservation created", content = @Content(schema = @Schema(implementation = ReservationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (resource type not allowed)", content = @Content),
+            @ApiResponse(responseCode = "409", description = "No resource of the type is free", content = @Content)
+    })
+    public ResponseEntity<ReservationResponse> createAnyOfType(
+            @RequestBody AutoAssignReservationRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.createAnyOfType(request, userDetails));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create several reservations", description = "Creates up to the configured maximum of reservations in one call. In ALL_OR_NOTHING mode (default) nothing is created unless every item can be; in BEST_EFFORT mode valid items are created and the rest reported.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "All reservations created", content = @Content(schema = @Schema(implementation = BatchReservationResponse.class))),
+            @ApiResponse(responseCode = "207", description = "Some or all items failed; see per-item results", content = @Content(schema = @Schema(implementation = BatchReservationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+    })
+    public ResponseEntity<BatchReservationResponse> createBatch(
+            @RequestBody BatchReservationRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        BatchReservationResponse response = reservationService.createBatch(request, userDetails);
+        HttpStatus status = response.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/recurring")
+    @Operation(summary = "Create a recurring reservation", description = "Expands a DAILY or WEEKLY recurrence rule and creates every occurrence, linked by a series ID. Nothing is created if any occurrence conflicts.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Series created", content = @Content(schema = @Schema(implementation = RecurringReservationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request or recurrence rule", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (insufficient permissions)", content = @Content),
+            @ApiResponse(responseCode = "409", description = "An occurrence overlaps", content = @Content)
+    })
+    public ResponseEntity<RecurringReservationResponse> createRecurring(
+            @RequestBody RecurringReservationRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(reservationService.createRecurring(request, userDetails));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get reservation by ID", description = "Returns details of a specific reservation if the user has permission.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Reservation found", content = @Content(schema = @Schema(implementation = ReservationResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden (insufficient permissions)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Not found", content = @Content)
     })
     public ResponseEntity<ReservationResponse> findById(
             @Parameter(description = "UUID of the reservation") @PathVariable UUID id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(reservationService.findById(id, userDetails));
+        String etag = entityTags.reservation(id, userDetails);
+        return ConditionalResponses.ofLoaded(etag, ifNoneMatch, reservationService.findById(id, userDetails));
     }
 
     @GetMapping("/active")
     @Operation(summary = "List all active reservations", description = "Filtered by the caller's role-based resource type permissions.")
-    @ApiResponse(responseCode = "200", description = "Active reservations retrieved")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Active reservations retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content)
+    })
     public ResponseEntity<List<ReservationResponse>> findAllActive(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(reservationService.findAllActive(userDetails));
+        return ConditionalResponses.of(entityTags.reservations(userDetails), ifNoneMatch,
+                () -> reservationService.findAllActive(userDetails));
     }
 
     @GetMapping("/my")
     @Operation(summary = "List active reservations for current user")
-    @ApiResponse(responseCode = "200", description = "User's active reservations retrieved")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "User's active reservations retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content)
+    })
     public ResponseEntity<List<ReservationResponse>> findMyActive(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(reservationService.findActiveByUser(userDetails));
+        return ConditionalResponses.of(entityTags.ownReservations(userDetails), ifNoneMatch,
+                () -> reservationService.findActiveByUser(userDetails));
     }
 
     @GetMapping("/my/history")
-    @Operation(summary = "Reservation history for current user")
-    @ApiResponse(responseCode = "200", description = "User's reservation history retrieved")
-    public ResponseEntity<List<ReservationResponse>> findMyHistory(
+    @Operation(summary = "Reservation history for current user", description = "Most recent first, one page at a time. Pass the returned nextCursor as cursor to get the next page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "User's reservation history retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
+    })
+    public ResponseEntity<CursorPage<ReservationResponse>> findMyHistory(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "50") int size,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(reservationService.findHistoryByUser(userDetails));
+        return ConditionalResponses.of(entityTags.ownReservations(userDetails), ifNoneMatch,
+                () -> reservationService.findHistoryByUser(cursor, size, userDetails));
     }
 
     @GetMapping("/resource/{resourceId}/history")
-    @Operation(summary = "Reservation history for a resource")
+    @Operation(summary = "Reservation history for a resource", description = "Most recent first, one page at a time. Pass the returned nextCursor as cursor to get the next page.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Resource reservation history retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden (insufficient permissions)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Resource not found", content = @Content)
     })
-    public ResponseEntity<List<ReservationResponse>> findResourceHistory(
+    public ResponseEntity<CursorPage<ReservationResponse>> findResourceHistory(
             @Parameter(description = "UUID of the resource") @PathVariable UUID resourceId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "50") int size,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(reservationService.findHistoryByResource(resourceId, userDetails));
+        return ConditionalResponses.of(entityTags.resourceReservations(resourceId, userDetails), ifNoneMatch,
+                () -> reservationService.findHistoryByResource(resourceId, cursor, size, userDetails));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export reservations (Admin only)", description = "Streams every matching reservation, ordered by start time, as NDJSON (one JSON object per line) or CSV. The date range applies to the start time.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed", content = {
+                    @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv") }),
+            @ApiResponse(responseCode = "400", description = "Unsupported format or invalid range", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (Admin only)", content = @Content)
+    })
+    public void export(
+            @Parameter(description = "ndjson (default) or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Earliest start time, inclusive (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest start time, exclusive (ISO date-time)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Status (ACTIVE, CANCELLED, ...)") @RequestParam(required = false) String status,
+            @Parameter(description = "Resource type ID") @RequestParam(required = false) Integer typeId,
+            @Parameter(description = "UUID of the user who made the reservation") @RequestParam(required = false) UUID userId,
+            HttpServletResponse response) throws IOException {
+        ReservationExportService.Format exportFormat = ReservationExportService.Format.of(format);
+        ReservationExportFilter filter = new ReservationExportFilter(from, to, status, typeId, userId);
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"reservations." + exportFormat.extension() + "\"");
+        exportService.export(filter, exportFormat, response.getOutputStream());
     }
 
     @GetMapping("/resource/{resourceId}/availability")
     @Operation(summary = "Get availability slots for a resource", description = "Returns available and reserved time slots within a window")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Availability retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden (insufficient permissions)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Resource not found", content = @Content)
     })
@@ -118,8 +247,70 @@ public class ReservationController {
             @Parameter(description = "UUID of the resource") @PathVariable UUID resourceId,
             @Parameter(description = "Start of window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @Parameter(description = "End of window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(reservationService.getAvailability(resourceId, start, end, userDetails));
+        return ConditionalResponses.of(entityTags.resourceReservations(resourceId, userDetails), ifNoneMatch,
+                () -> reservationService.getAvailability(resourceId, start, end, userDetails));
+    }
+
+    @GetMapping("/availability")
+    @Operation(summary = "Get availability slots for several resources", description = "Returns available and reserved time slots within a window for the given resources, or for every active resource of a type. Resources of types the caller cannot access are omitted.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Availability retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid window, or neither/both of resourceIds and typeId", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (resource type not allowed)", content = @Content)
+    })
+    public ResponseEntity<List<ResourceAvailability>> getAvailabilityForResources(
+            @Parameter(description = "UUIDs of the resources") @RequestParam(required = false) List<UUID> resourceIds,
+            @Parameter(description = "Resource type ID (all its active resources)") @RequestParam(required = false) Integer typeId,
+            @Parameter(description = "Start of window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End of window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        return ConditionalResponses.of(entityTags.reservations(userDetails), ifNoneMatch,
+                () -> reservationService.getAvailabilityForResources(resourceIds, typeId, start, end, userDetails));
+    }
+
+    @GetMapping("/availability/matrix")
+    @Operation(summary = "Get an occupancy bitmap for several resources", description = "Returns the occupancy of the given resources, or of every active resource of a type, as a base64 bitmap of fixed-size buckets (one row per resource, least significant bit first). A bit is set when the bucket overlaps an active reservation.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Matrix retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid window or bucket, matrix too large, or neither/both of resourceIds and typeId", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (resource type not allowed)", content = @Content)
+    })
+    public ResponseEntity<AvailabilityMatrix> getAvailabilityMatrix(
+            @Parameter(description = "UUIDs of the resources") @RequestParam(required = false) List<UUID> resourceIds,
+            @Parameter(description = "Resource type ID (all its active resources)") @RequestParam(required = false) Integer typeId,
+            @Parameter(description = "Start of window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "End of window (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(description = "Bucket size in minutes") @RequestParam(defaultValue = "15") int bucketMinutes,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        return ConditionalResponses.of(entityTags.reservations(userDetails), ifNoneMatch,
+                () -> reservationService.getAvailabilityMatrix(resourceIds, typeId, start, end, bucketMinutes,
+                        userDetails));
+    }
+
+    @GetMapping("/next-available")
+    @Operation(summary = "Find the next available slots of a resource type", description = "Returns the earliest free slots of the requested length across every active resource of the type, earliest first. Looks at most the configured horizon ahead of earliestStart.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slots found (possibly none)"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid duration or limit", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (resource type not allowed)", content = @Content)
+    })
+    public ResponseEntity<List<SlotSuggestion>> findNextAvailable(
+            @Parameter(description = "Resource type ID") @RequestParam Integer typeId,
+            @Parameter(description = "Slot length in minutes") @RequestParam int durationMinutes,
+            @Parameter(description = "Earliest slot start (ISO date-time)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime earliestStart,
+            @Parameter(description = "Maximum number of slots (1-50)") @RequestParam(defaultValue = "5") int limit,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        return ConditionalResponses.of(entityTags.reservations(userDetails), ifNoneMatch,
+                () -> availabilitySearchService.findNextAvailable(typeId, Duration.ofMinutes(durationMinutes),
+                        earliestStart, limit, userDetails));
     }
 
     @PatchMapping("/{id}/cancel")
@@ -135,4 +326,18 @@ public class ReservationController {
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
         return ResponseEntity.ok(reservationService.cancel(id, userDetails));
     }
+
+    @PatchMapping("/series/{seriesId}/cancel")
+    @Operation(summary = "Cancel a reservation series", description = "Cancels every active occurrence of a recurring reservation. Only the creator or an admin can cancel.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Series cancelled", content = @Content(schema = @Schema(implementation = SeriesCancellationResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden (Not creator or Admin)", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Not found", content = @Content)
+    })
+    public ResponseEntity<SeriesCancellationResponse> cancelSeries(
+            @Parameter(description = "UUID of the series to cancel") @PathVariable UUID seriesId,
+            @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(reservationService.cancelSeries(seriesId, userDetails));
+    }
 }
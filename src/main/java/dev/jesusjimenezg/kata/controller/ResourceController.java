@@ -1,7 +1,9 @@
 package dev.jesusjimenezg.kata.controller;
 
+import dev.jesusjimenezg.kata.dto.CursorPage;
 import dev.jesusjimenezg.kata.dto.ResourceRequest;
 import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import dev.jesusjimenezg.kata.service.EntityTags;
 import dev.jesusjimenezg.kata.service.ResourceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,11 +25,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -36,33 +39,48 @@ import java.util.UUID;
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final EntityTags entityTags;
 
-    public ResourceController(ResourceService resourceService) {
+    public ResourceController(ResourceService resourceService, EntityTags entityTags) {
         this.resourceService = resourceService;
+        this.entityTags = entityTags;
     }
 
     @GetMapping
-    @Operation(summary = "List resources", description = "Lists resources the user is allowed to see. Supports text search across name, description and location, plus optional active-status and resource-type filters.")
-    @ApiResponse(responseCode = "200", description = "Resources retrieved")
-    public ResponseEntity<List<ResourceResponse>> findAll(
+    @Operation(summary = "List resources", description = "Lists resources the user is allowed to see, one page at a time. Supports relevance-ranked, typo-tolerant text search across name, description and location, plus optional active-status and resource-type filters. Pass the returned nextCursor as cursor to get the next page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resources retrieved", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid sort, cursor or page size", content = @Content)
+    })
+    public ResponseEntity<byte[]> findAll(
             @Parameter(description = "Text search across name, description and location (case-insensitive)") @RequestParam(required = false) String search,
             @Parameter(description = "Filter by active status (true/false)") @RequestParam(required = false) Boolean active,
             @Parameter(description = "Filter by resource type ID") @RequestParam(required = false) Integer typeId,
+            @Parameter(description = "name, -name, createdAt, -createdAt or relevance (default: relevance with search, name without)") @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "50") int size,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(resourceService.search(search, active, typeId, userDetails));
+        return SerializedResponses.of(
+                resourceService.searchSerialized(search, active, typeId, sort, cursor, size, userDetails),
+                acceptEncoding);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get resource by ID", description = "Returns details of a specific resource if the user has permission.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Resource found", content = @Content(schema = @Schema(implementation = ResourceResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden (insufficient permissions)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Not found", content = @Content)
     })
     public ResponseEntity<ResourceResponse> findById(
             @Parameter(description = "UUID of the resource") @PathVariable UUID id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(resourceService.findById(id, userDetails));
+        return ConditionalResponses.of(entityTags.resource(id, userDetails), ifNoneMatch,
+                () -> resourceService.findById(id, userDetails));
     }
 
     @PostMapping
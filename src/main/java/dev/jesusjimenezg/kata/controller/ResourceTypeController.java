@@ -2,15 +2,18 @@ package dev.jesusjimenezg.kata.controller;
 
 import dev.jesusjimenezg.kata.dto.ResourceTypeRequest;
 import dev.jesusjimenezg.kata.dto.ResourceTypeResponse;
+import dev.jesusjimenezg.kata.service.EntityTags;
 import dev.jesusjimenezg.kata.service.ResourceTypeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,11 +25,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/resource-types")
 @SecurityRequirement(name = "BearerAuth")
@@ -34,30 +36,39 @@ import java.util.List;
 public class ResourceTypeController {
 
     private final ResourceTypeService resourceTypeService;
+    private final EntityTags entityTags;
 
-    public ResourceTypeController(ResourceTypeService resourceTypeService) {
+    public ResourceTypeController(ResourceTypeService resourceTypeService, EntityTags entityTags) {
         this.resourceTypeService = resourceTypeService;
+        this.entityTags = entityTags;
     }
 
     @GetMapping
     @Operation(summary = "List resource types visible to the current user")
-    @ApiResponse(responseCode = "200", description = "Resource types retrieved")
-    public ResponseEntity<List<ResourceTypeResponse>> findAll(
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Resource types retrieved", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ResourceTypeResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content)
+    })
+    public ResponseEntity<byte[]> findAll(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(resourceTypeService.findAll(userDetails));
+        return SerializedResponses.of(resourceTypeService.findAllSerialized(userDetails), acceptEncoding);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get resource type by ID", description = "Returns details of a specific resource type if the user has permission.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Resource type found", content = @Content(schema = @Schema(implementation = ResourceTypeResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match matched the ETag)", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden (insufficient permissions)", content = @Content),
             @ApiResponse(responseCode = "404", description = "Not found", content = @Content)
     })
     public ResponseEntity<ResourceTypeResponse> findById(
             @Parameter(description = "ID of the resource type", example = "1") @PathVariable Integer id,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @Parameter(hidden = true) @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(resourceTypeService.findById(id, userDetails));
+        return ConditionalResponses.of(entityTags.resourceType(id, userDetails), ifNoneMatch,
+                () -> resourceTypeService.findById(id, userDetails));
     }
 
     @PostMapping
@@ -0,0 +1,54 @@
+package dev.jesusjimenezg.kata.controller;
+
+import dev.jesusjimenezg.kata.service.SerializedResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Writes a {@link SerializedResponse} out as is, gzipped when the client accepts
+ * it and a gzip encoding was prepared. Bodies with an ETag are sent with it and
+ * {@code Cache-Control: private, no-cache}; Spring MVC answers a matching
+ * {@code If-None-Match} with 304 and no body.
+ */
+final class SerializedResponses {
+
+    private SerializedResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(SerializedResponse body, String acceptEncoding) {
+        boolean gzip = body.gzip() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (body.etag() != null) {
+            builder.eTag(gzip ? body.gzipEtag() : body.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return builder.body(body.json());
+    }
+
+    /** Whether {@code Accept-Encoding} lists gzip (or {@code *}) without {@code q=0}. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().matches("[qQ]\\s*=\\s*0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.time.LocalDateTime;
+
+public record AutoAssignReservationRequest(
+        Integer resourceTypeId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String notes) {
+}
@@ -0,0 +1,22 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Occupancy of several resources over a window, one bit per resource and
+ * bucket. Row {@code i} describes {@code resourceIds.get(i)}; bit
+ * {@code i * bucketCount + j} lives in byte {@code (i * bucketCount + j) / 8}
+ * of the decoded {@code occupancy}, least significant bit first, and is set
+ * when bucket {@code j} overlaps an active reservation.
+ */
+public record AvailabilityMatrix(
+        LocalDateTime start,
+        LocalDateTime end,
+        int bucketMinutes,
+        int bucketCount,
+        List<UUID> resourceIds,
+        List<String> resourceNames,
+        String occupancy) {
+}
@@ -0,0 +1,14 @@
+package dev.jesusjimenezg.kata.dto;
+
+/**
+ * Outcome of one batch item, at the same position as in the request.
+ * {@code status} is the HTTP status the item would have received on its own
+ * (201, 400, 403 or 409), or 424 when it was valid but not created because
+ * another item of an all-or-nothing batch failed.
+ */
+public record BatchItemResult(
+        int index,
+        int status,
+        ReservationResponse reservation,
+        String error) {
+}
@@ -0,0 +1,19 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.util.List;
+
+/**
+ * Several reservations created in one call. {@code mode} defaults to
+ * {@link Mode#ALL_OR_NOTHING}.
+ */
+public record BatchReservationRequest(
+        List<ReservationRequest> items,
+        Mode mode) {
+
+    public enum Mode {
+        /** Nothing is created unless every item can be created. */
+        ALL_OR_NOTHING,
+        /** Valid items are created; the rest are reported as failed. */
+        BEST_EFFORT
+    }
+}
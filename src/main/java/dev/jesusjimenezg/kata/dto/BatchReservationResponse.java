@@ -0,0 +1,9 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.util.List;
+
+public record BatchReservationResponse(
+        int created,
+        int failed,
+        List<BatchItemResult> results) {
+}
@@ -0,0 +1,16 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is opaque; pass it
+ * back as {@code cursor} to get the following page. It is {@code null} on the
+ * last page.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor) {
+
+    /** Largest page any keyset-paginated listing returns. */
+    public static final int MAX_PAGE_SIZE = 100;
+}
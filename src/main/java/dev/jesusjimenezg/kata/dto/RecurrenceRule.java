@@ -0,0 +1,25 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * How a reservation repeats. {@code interval} defaults to 1 (every day or
+ * every week). {@code byWeekday} only applies to {@link Frequency#WEEKLY} and
+ * defaults to the weekday of the first occurrence. Exactly one of
+ * {@code until} (inclusive date of the last occurrence) or {@code count} is
+ * required.
+ */
+public record RecurrenceRule(
+        Frequency frequency,
+        Integer interval,
+        Set<DayOfWeek> byWeekday,
+        LocalDate until,
+        Integer count) {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY
+    }
+}
@@ -0,0 +1,16 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A reservation repeated according to {@code recurrence}. {@code startTime}
+ * and {@code endTime} describe the first occurrence.
+ */
+public record RecurringReservationRequest(
+        UUID resourceId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String notes,
+        RecurrenceRule recurrence) {
+}
@@ -0,0 +1,9 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record RecurringReservationResponse(
+        UUID seriesId,
+        List<ReservationResponse> reservations) {
+}
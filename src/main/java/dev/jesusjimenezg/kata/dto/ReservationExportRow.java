@@ -0,0 +1,21 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ReservationExportRow(
+        UUID id,
+        UUID resourceId,
+        String resourceName,
+        String resourceType,
+        UUID userId,
+        String userEmail,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String status,
+        String notes,
+        UUID seriesId,
+        UUID cancelledBy,
+        LocalDateTime cancelledAt,
+        LocalDateTime createdAt) {
+}
@@ -16,5 +16,6 @@ public record ReservationResponse(
         UUID cancelledById,
         LocalDateTime cancelledAt,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt) {
+        LocalDateTime updatedAt,
+        UUID seriesId) {
 }
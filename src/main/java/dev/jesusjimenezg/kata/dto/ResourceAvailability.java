@@ -0,0 +1,10 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ResourceAvailability(
+        UUID resourceId,
+        String resourceName,
+        List<AvailabilitySlot> slots) {
+}
@@ -0,0 +1,8 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.util.UUID;
+
+public record SeriesCancellationResponse(
+        UUID seriesId,
+        int cancelled) {
+}
@@ -0,0 +1,11 @@
+package dev.jesusjimenezg.kata.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SlotSuggestion(
+        UUID resourceId,
+        String resourceName,
+        LocalDateTime start,
+        LocalDateTime end) {
+}
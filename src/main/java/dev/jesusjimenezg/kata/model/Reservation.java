@@ -10,6 +10,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -17,6 +18,12 @@ import java.util.UUID;
 @Table(name = "reservation")
 public class Reservation {
 
+    /**
+     * Longest allowed reservation, enforced by {@code chk_reservation_length}
+     * (V12). Overlap queries rely on it to bound {@code start_time} from below.
+     */
+    public static final Duration MAX_LENGTH = Duration.ofDays(31);
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -48,6 +55,9 @@ public class Reservation {
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
+    @Column(name = "series_id", updatable = false)
+    private UUID seriesId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -129,6 +139,14 @@ public class Reservation {
         this.cancelledAt = cancelledAt;
     }
 
+    public UUID getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(UUID seriesId) {
+        this.seriesId = seriesId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,36 @@
+package dev.jesusjimenezg.kata.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+/**
+ * Read-only mapping of the generated search columns of {@code resource}, kept
+ * apart from {@link Resource} so that loading resources never reads them. Only
+ * used inside search queries (see {@code ResourceSpecification.matchesText}).
+ */
+@Entity
+@Immutable
+@Table(name = "resource")
+public class ResourceSearchDocument {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+
+    @Column(name = "search_text", insertable = false, updatable = false)
+    private String searchText;
+
+    public ResourceSearchDocument() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
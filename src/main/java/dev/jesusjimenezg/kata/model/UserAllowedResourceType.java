@@ -0,0 +1,72 @@
+package dev.jesusjimenezg.kata.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Read-only mapping of the {@code v_user_allowed_resource_types} view: one row per
+ * (user, resource type) the user can access through any of its roles.
+ */
+@Entity
+@Immutable
+@Table(name = "v_user_allowed_resource_types")
+@IdClass(UserAllowedResourceType.Key.class)
+public class UserAllowedResourceType {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "resource_type_id")
+    private Integer resourceTypeId;
+
+    public UserAllowedResourceType() {
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Integer getResourceTypeId() {
+        return resourceTypeId;
+    }
+
+    public static class Key implements Serializable {
+
+        private UUID userId;
+        private Integer resourceTypeId;
+
+        public Key() {
+        }
+
+        public Key(UUID userId, Integer resourceTypeId) {
+            this.userId = userId;
+            this.resourceTypeId = resourceTypeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(userId, other.userId) && Objects.equals(resourceTypeId, other.resourceTypeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, resourceTypeId);
+        }
+    }
+}
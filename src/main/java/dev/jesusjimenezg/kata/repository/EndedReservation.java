@@ -0,0 +1,9 @@
+package dev.jesusjimenezg.kata.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A reservation that has just been moved out of the ACTIVE set. */
+public record EndedReservation(UUID id, UUID resourceId, UUID userId, LocalDateTime startTime,
+        LocalDateTime endTime) {
+}
@@ -0,0 +1,62 @@
+package dev.jesusjimenezg.kata.repository;
+
+import dev.jesusjimenezg.kata.model.Reservation;
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL functions and operators used by the JPQL queries and
+ * specifications of this package. Registered with Hibernate through
+ * {@code META-INF/services}.
+ * <ul>
+ * <li>{@code tsrange_overlaps(start1, end1, start2, end2)}: whether the
+ * half-open ranges {@code [start1, end1)} and {@code [start2, end2)} overlap,
+ * written as the {@code tsrange && tsrange} expression that the
+ * {@code excl_reservation_overlap} GiST index can answer.</li>
+ * <li>{@code fts_match(vector, text)} and {@code fts_rank(vector, text)}:
+ * whether a {@code tsvector} matches the web-search style query {@code text}
+ * (Spanish configuration), and how well.</li>
+ * <li>{@code trgm_word_match(text, document)} and
+ * {@code trgm_word_similarity(text, document)}: whether some extent of
+ * {@code document} is trigram-similar to {@code text} ({@code pg_trgm}'s
+ * {@code <%}, which tolerates typos), and how similar.</li>
+ * <li>{@code c_collated(text)}: {@code text} under the {@code "C"} collation,
+ * which orders by code point like the in-memory catalog, as indexed by the
+ * V11 name indexes.</li>
+ * <li>{@code row_after(a1, b1, a2, b2)} and {@code row_before(a1, b1, a2, b2)}:
+ * the row comparisons {@code (a1, b1) > (a2, b2)} and {@code <}, which a
+ * composite index on {@code (a, b)} can seek to, unlike the equivalent
+ * {@code OR}.</li>
+ * <li>{@code may_run_at(start, instant)}: whether a reservation starting at
+ * {@code start} can still be running at {@code instant}, i.e. started less
+ * than {@link Reservation#MAX_LENGTH} before it. A lower bound on the
+ * partition key, so PostgreSQL prunes the monthly partitions that end
+ * earlier.</li>
+ * </ul>
+ */
+public class PostgresFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        SqmFunctionRegistry registry = functionContributions.getFunctionRegistry();
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> bool = types.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> dbl = types.resolve(StandardBasicTypes.DOUBLE);
+        BasicType<String> string = types.resolve(StandardBasicTypes.STRING);
+
+        registry.registerPattern("tsrange_overlaps", "(tsrange(?1, ?2, '[)') && tsrange(?3, ?4, '[)'))", bool);
+        registry.registerPattern("fts_match", "(?1 @@ websearch_to_tsquery('spanish', ?2))", bool);
+        registry.registerPattern("fts_rank", "ts_rank(?1, websearch_to_tsquery('spanish', ?2))", dbl);
+        registry.registerPattern("trgm_word_match", "(?1 <% ?2)", bool);
+        registry.registerPattern("trgm_word_similarity", "word_similarity(?1, ?2)", dbl);
+        registry.registerPattern("c_collated", "(?1 collate \"C\")", string);
+        registry.registerPattern("row_after", "((?1, ?2) > (?3, ?4))", bool);
+        registry.registerPattern("row_before", "((?1, ?2) < (?3, ?4))", bool);
+        registry.registerPattern("may_run_at",
+                "(?1 > ?2 - interval '" + Reservation.MAX_LENGTH.toDays() + " days')", bool);
+    }
+}
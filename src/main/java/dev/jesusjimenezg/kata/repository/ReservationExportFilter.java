@@ -0,0 +1,27 @@
+package dev.jesusjimenezg.kata.repository;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Optional filters of a reservation export; {@code null} means "any". The date
+ * range applies to the start time, {@code from} inclusive and {@code to}
+ * exclusive. The status is matched case-insensitively.
+ */
+public record ReservationExportFilter(
+        LocalDateTime from,
+        LocalDateTime to,
+        String status,
+        Integer resourceTypeId,
+        UUID userId) {
+
+    public ReservationExportFilter {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("Export 'to' must be after 'from'");
+        }
+        if (status != null) {
+            status = status.toUpperCase(Locale.ROOT);
+        }
+    }
+}
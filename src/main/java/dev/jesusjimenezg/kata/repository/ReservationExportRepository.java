@@ -0,0 +1,95 @@
+package dev.jesusjimenezg.kata.repository;
+
+import dev.jesusjimenezg.kata.dto.ReservationExportRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads reservations for export row by row, bypassing the persistence context.
+ * The PostgreSQL driver only streams with a fetch size inside a transaction
+ * (autocommit off); outside one it buffers the whole result.
+ */
+@Repository
+public class ReservationExportRepository {
+
+    private static final String SELECT = """
+            SELECT r.id, r.resource_id, res.name AS resource_name, rt.name AS resource_type,
+                   r.user_id, u.email, r.start_time, r.end_time, r.status, r.notes, r.series_id,
+                   r.cancelled_by, r.cancelled_at, r.created_at
+            FROM reservation r
+            JOIN resource res ON res.id = r.resource_id
+            JOIN resource_type rt ON rt.id = res.resource_type_id
+            JOIN app_user u ON u.id = r.user_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReservationExportRepository(DataSource dataSource,
+            @Value("${app.reservations.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes every matching reservation to {@code sink}, ordered by start time and
+     * ID, without holding more than one fetch of rows in memory.
+     */
+    public void stream(ReservationExportFilter filter, Consumer<ReservationExportRow> sink) {
+        StringBuilder sql = new StringBuilder(SELECT).append("WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (filter.from() != null) {
+            sql.append(" AND r.start_time >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND r.start_time < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.status() != null) {
+            sql.append(" AND r.status = ?");
+            args.add(filter.status());
+        }
+        if (filter.resourceTypeId() != null) {
+            sql.append(" AND res.resource_type_id = ?");
+            args.add(filter.resourceTypeId());
+        }
+        if (filter.userId() != null) {
+            sql.append(" AND r.user_id = ?");
+            args.add(filter.userId());
+        }
+        sql.append(" ORDER BY r.start_time, r.id");
+
+        RowCallbackHandler handler = rs -> sink.accept(toRow(rs));
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static ReservationExportRow toRow(ResultSet rs) throws SQLException {
+        return new ReservationExportRow(
+                rs.getObject("id", UUID.class),
+                rs.getObject("resource_id", UUID.class),
+                rs.getString("resource_name"),
+                rs.getString("resource_type"),
+                rs.getObject("user_id", UUID.class),
+                rs.getString("email"),
+                rs.getObject("start_time", LocalDateTime.class),
+                rs.getObject("end_time", LocalDateTime.class),
+                rs.getString("status"),
+                rs.getString("notes"),
+                rs.getObject("series_id", UUID.class),
+                rs.getObject("cancelled_by", UUID.class),
+                rs.getObject("cancelled_at", LocalDateTime.class),
+                rs.getObject("created_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,13 @@
+package dev.jesusjimenezg.kata.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Time interval occupied by an ACTIVE reservation of a resource.
+ */
+public record ReservationInterval(
+        UUID resourceId,
+        LocalDateTime startTime,
+        LocalDateTime endTime) {
+}
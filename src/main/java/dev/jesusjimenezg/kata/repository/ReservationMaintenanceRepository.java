@@ -0,0 +1,65 @@
+package dev.jesusjimenezg.kata.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk status transitions that need PostgreSQL row locking clauses and
+ * {@code RETURNING}, which JPQL cannot express.
+ */
+@Repository
+public class ReservationMaintenanceRepository {
+
+    private static final String COMPLETE_ENDED = """
+            WITH due AS (
+                SELECT id, start_time FROM reservation
+                WHERE status = 'ACTIVE'
+                  AND start_time < ?
+                  AND end_time <= ?
+                  AND end_time >= ?
+                ORDER BY end_time, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE reservation r
+            SET status = 'COMPLETED', updated_at = ?
+            FROM due
+            WHERE r.id = due.id
+              AND r.start_time = due.start_time
+            RETURNING r.id, r.resource_id, r.user_id, r.start_time, r.end_time
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReservationMaintenanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locks up to {@code limit} ACTIVE reservations that ended by {@code now}, and
+     * not before {@code fromEndTime}, in end time order and marks them COMPLETED.
+     * Rows locked by another transaction (another node's chunk, or a cancellation
+     * in progress) are skipped rather than waited for. Must run inside a
+     * transaction, which holds the row locks until it ends.
+     * <p>
+     * The start time conditions are implied by the end time ones; they let
+     * PostgreSQL skip the partitions of future months and find each row to update
+     * by its full primary key.
+     */
+    public List<EndedReservation> completeEnded(LocalDateTime now, LocalDateTime fromEndTime, int limit) {
+        Timestamp nowTs = Timestamp.valueOf(now);
+        return jdbcTemplate.query(COMPLETE_ENDED,
+                (rs, rowNum) -> new EndedReservation(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("resource_id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getObject("start_time", LocalDateTime.class),
+                        rs.getObject("end_time", LocalDateTime.class)),
+                nowTs, nowTs, Timestamp.valueOf(fromEndTime), limit, nowTs);
+    }
+}
@@ -0,0 +1,42 @@
+package dev.jesusjimenezg.kata.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calls the partition maintenance functions of the monthly partitioned
+ * {@code reservation} table (see {@code V9__reservation_monthly_partitions.sql}).
+ */
+@Repository
+public class ReservationPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReservationPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the partition for the month containing {@code month}, moving in
+     * any rows the default partition holds for it. Returns false when it
+     * already existed.
+     */
+    public boolean createMonth(LocalDate month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT create_reservation_partition(?)", Boolean.class, Date.valueOf(month)));
+    }
+
+    /**
+     * Detaches the monthly partitions that end on or before {@code cutoff} and
+     * hold no ACTIVE reservations into the {@code reservation_archive} schema.
+     * Returns their names.
+     */
+    public List<String> archiveBefore(LocalDate cutoff) {
+        return jdbcTemplate.queryForList(
+                "SELECT archive_reservation_partitions(?)", String.class, Date.valueOf(cutoff));
+    }
+}
@@ -1,7 +1,11 @@
 package dev.jesusjimenezg.kata.repository;
 
+import dev.jesusjimenezg.kata.dto.ReservationResponse;
+import dev.jesusjimenezg.kata.model.AppUser;
 import dev.jesusjimenezg.kata.model.Reservation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,6 +13,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -23,79 +28,249 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
   /** Active reservations for a specific resource. */
   List<Reservation> findByResourceIdAndStatus(UUID resourceId, String status);
 
-  /**
-   * Detect overlapping ACTIVE reservations for the same resource.
-   * Two intervals [s1, e1) and [s2, e2) overlap when s1 < e2 AND s2 < e1.
-   */
+  // Overlap tests here and in the window queries below use tsrange_overlaps
+  // (see PostgresFunctionContributor), which renders
+  // tsrange(start_time, end_time, '[)') && tsrange(...). Together with
+  // status = 'ACTIVE' this matches the per-partition GiST indexes behind
+  // excl_reservation_overlap_*; scalar start/end comparisons do not. The
+  // redundant start_time bounds let PostgreSQL prune the monthly partitions
+  // (see V9): the upper bound those that start after the range, and
+  // may_run_at, which relies on the maximum reservation length (V12), those
+  // that end more than that length before it.
+
+  /** Detect overlapping ACTIVE reservations for the same resource. */
   @Query("""
       SELECT COUNT(r) > 0 FROM Reservation r
       WHERE r.resource.id = :resourceId
         AND r.status = 'ACTIVE'
         AND r.startTime < :endTime
-        AND r.endTime > :startTime
+        AND may_run_at(r.startTime, :startTime)
+        AND tsrange_overlaps(r.startTime, r.endTime, :startTime, :endTime)
       """)
   boolean existsOverlapping(UUID resourceId, LocalDateTime startTime, LocalDateTime endTime);
 
-  /**
-   * Reservation history for a resource (all statuses, ordered by most recent
-   * first).
-   */
-  List<Reservation> findByResourceIdOrderByStartTimeDesc(UUID resourceId);
-
   /**
    * Reservation history for a user (all statuses, ordered by most recent first).
    */
   List<Reservation> findByUserIdOrderByStartTimeDesc(UUID userId);
 
+  // ── Keyset-paginated history ─────────────────────────────────────────
+  // Ordered by (startTime, id) descending and served by the composite indexes
+  // of V6. The "After" variants continue strictly below the given row. Rows are
+  // projected straight into responses (see the read-path section below).
+
+  /** First page of a resource's history (all statuses), if the viewer can access its type. */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE res.id = :resourceId
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+      ORDER BY r.startTime DESC, r.id DESC
+      """)
+  List<ReservationResponse> findResourceHistory(@Param("resourceId") UUID resourceId,
+      @Param("viewerId") UUID viewerId, Limit limit);
+
+  /** Page of a resource's history following the row {@code (startTime, id)}. */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE res.id = :resourceId
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+        AND (r.startTime, r.id) < (:startTime, :id)
+      ORDER BY r.startTime DESC, r.id DESC
+      """)
+  List<ReservationResponse> findResourceHistoryAfter(@Param("resourceId") UUID resourceId,
+      @Param("viewerId") UUID viewerId, @Param("startTime") LocalDateTime startTime, @Param("id") UUID id,
+      Limit limit);
+
+  /** Intervals of every ACTIVE reservation (interval index warm-up). */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.repository.ReservationInterval(r.resource.id, r.startTime, r.endTime)
+      FROM Reservation r
+      WHERE r.status = 'ACTIVE'
+      """)
+  List<ReservationInterval> findActiveIntervals();
+
+  /** Intervals of the ACTIVE reservations of one resource. */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.repository.ReservationInterval(r.resource.id, r.startTime, r.endTime)
+      FROM Reservation r
+      WHERE r.resource.id = :resourceId
+        AND r.status = 'ACTIVE'
+      """)
+  List<ReservationInterval> findActiveIntervalsByResourceId(@Param("resourceId") UUID resourceId);
+
   /**
-   * Active reservations for a resource within a time window (availability view).
+   * Intervals of the ACTIVE reservations of one resource that overlap a window,
+   * ordered by start time.
    */
   @Query("""
-      SELECT r FROM Reservation r
+      SELECT new dev.jesusjimenezg.kata.repository.ReservationInterval(r.resource.id, r.startTime, r.endTime)
+      FROM Reservation r
       WHERE r.resource.id = :resourceId
         AND r.status = 'ACTIVE'
         AND r.startTime < :windowEnd
-        AND r.endTime > :windowStart
+        AND may_run_at(r.startTime, :windowStart)
+        AND tsrange_overlaps(r.startTime, r.endTime, :windowStart, :windowEnd)
       ORDER BY r.startTime
       """)
-  List<Reservation> findActiveInWindow(UUID resourceId, LocalDateTime windowStart, LocalDateTime windowEnd);
+  List<ReservationInterval> findActiveIntervalsInWindow(@Param("resourceId") UUID resourceId,
+      @Param("windowStart") LocalDateTime windowStart, @Param("windowEnd") LocalDateTime windowEnd);
+
+  /**
+   * Intervals of the ACTIVE reservations of several resources that overlap a
+   * window, grouped by resource and ordered by start time within each resource.
+   */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.repository.ReservationInterval(r.resource.id, r.startTime, r.endTime)
+      FROM Reservation r
+      WHERE r.resource.id IN :resourceIds
+        AND r.status = 'ACTIVE'
+        AND r.startTime < :windowEnd
+        AND may_run_at(r.startTime, :windowStart)
+        AND tsrange_overlaps(r.startTime, r.endTime, :windowStart, :windowEnd)
+      ORDER BY r.resource.id, r.startTime
+      """)
+  List<ReservationInterval> findActiveIntervalsInWindowForResources(
+      @Param("resourceIds") Collection<UUID> resourceIds, @Param("windowStart") LocalDateTime windowStart,
+      @Param("windowEnd") LocalDateTime windowEnd);
+
+  // ── Recurring series ─────────────────────────────────────────────────
 
-  // ── Permission-filtered queries ──────────────────────────────────────
+  /** Any occurrence of a series (used to resolve its owner). */
+  Optional<Reservation> findFirstBySeriesId(UUID seriesId);
 
-  /** All reservations with a given status, filtered by allowed resource types. */
-  @Query("SELECT r FROM Reservation r WHERE r.status = :status AND r.resource.resourceType.id IN :typeIds")
-  List<Reservation> findByStatusAndResourceTypeIdIn(@Param("status") String status,
-      @Param("typeIds") Collection<Integer> typeIds);
+  /** Intervals of the ACTIVE occurrences of a series. */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.repository.ReservationInterval(r.resource.id, r.startTime, r.endTime)
+      FROM Reservation r
+      WHERE r.seriesId = :seriesId
+        AND r.status = 'ACTIVE'
+      """)
+  List<ReservationInterval> findActiveIntervalsBySeriesId(@Param("seriesId") UUID seriesId);
+
+  /** Cancels every ACTIVE occurrence of a series in one statement. */
+  @Modifying
+  @Query("""
+      UPDATE Reservation r
+      SET r.status = 'CANCELLED',
+          r.cancelledBy = :cancelledBy,
+          r.cancelledAt = :now,
+          r.updatedAt = :now
+      WHERE r.seriesId = :seriesId
+        AND r.status = 'ACTIVE'
+      """)
+  int cancelActiveBySeriesId(@Param("seriesId") UUID seriesId, @Param("cancelledBy") AppUser cancelledBy,
+      @Param("now") LocalDateTime now);
 
   /**
-   * User's reservations with a given status, filtered by allowed resource types.
+   * Takes a transaction-scoped PostgreSQL advisory lock on the given key, waiting
+   * for any other transaction holding it. Released on commit or rollback.
    */
+  @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+  Integer acquireResourceLock(@Param("key") long key);
+
+  /**
+   * Non-blocking variant of {@link #acquireResourceLock(long)}: takes the lock
+   * only if no other transaction holds it.
+   */
+  @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  Boolean tryAcquireResourceLock(@Param("key") long key);
+
+  // ── Permission-filtered queries (joined against v_user_allowed_resource_types) ──
+  // A single statement per call whose shape does not depend on how many types
+  // the viewer can access.
+  //
+  // Read path: these select straight into ReservationResponse with explicit
+  // joins, so no entity graph (resource type, user roles, cancelledBy proxy)
+  // is loaded and each call is exactly one statement.
+
+  /** A reservation, if the viewer can access its resource type. */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE r.id = :id
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+      """)
+  Optional<ReservationResponse> findResponseVisibleTo(@Param("id") UUID id, @Param("viewerId") UUID viewerId);
+
+  /** All reservations with a given status whose resource type the viewer can access. */
   @Query("""
-      SELECT r FROM Reservation r
-      WHERE r.user.id = :userId
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE r.status = :status
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+      """)
+  List<ReservationResponse> findByStatusVisibleTo(@Param("status") String status,
+      @Param("viewerId") UUID viewerId);
+
+  /** User's own reservations with a given status, restricted to accessible types. */
+  @Query("""
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE u.id = :userId
         AND r.status = :status
-        AND r.resource.resourceType.id IN :typeIds
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :userId)
       """)
-  List<Reservation> findByUserIdAndStatusAndResourceTypeIdIn(@Param("userId") UUID userId,
-      @Param("status") String status, @Param("typeIds") Collection<Integer> typeIds);
+  List<ReservationResponse> findOwnByStatus(@Param("userId") UUID userId, @Param("status") String status);
 
-  /** Resource reservation history, filtered by allowed resource types. */
+  /**
+   * First page of the user's own reservation history, restricted to accessible
+   * types and ordered by (startTime, id) descending.
+   */
   @Query("""
-      SELECT r FROM Reservation r
-      WHERE r.resource.id = :resourceId
-        AND r.resource.resourceType.id IN :typeIds
-      ORDER BY r.startTime DESC
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE u.id = :userId
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :userId)
+      ORDER BY r.startTime DESC, r.id DESC
       """)
-  List<Reservation> findByResourceIdAndResourceTypeIdInOrderByStartTimeDesc(
-      @Param("resourceId") UUID resourceId, @Param("typeIds") Collection<Integer> typeIds);
+  List<ReservationResponse> findOwnHistory(@Param("userId") UUID userId, Limit limit);
 
-  /** User's reservation history, filtered by allowed resource types. */
+  /** Page of {@link #findOwnHistory(UUID, Limit)} following the row {@code (startTime, id)}. */
   @Query("""
-      SELECT r FROM Reservation r
-      WHERE r.user.id = :userId
-        AND r.resource.resourceType.id IN :typeIds
-      ORDER BY r.startTime DESC
+      SELECT new dev.jesusjimenezg.kata.dto.ReservationResponse(
+          r.id, res.id, res.name, u.id, u.email, r.startTime, r.endTime, r.status, r.notes,
+          r.cancelledBy.id, r.cancelledAt, r.createdAt, r.updatedAt, r.seriesId)
+      FROM Reservation r
+      JOIN r.resource res
+      JOIN r.user u
+      WHERE u.id = :userId
+        AND res.resourceType.id IN (
+          SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :userId)
+        AND (r.startTime, r.id) < (:startTime, :id)
+      ORDER BY r.startTime DESC, r.id DESC
       """)
-  List<Reservation> findByUserIdAndResourceTypeIdInOrderByStartTimeDesc(@Param("userId") UUID userId,
-      @Param("typeIds") Collection<Integer> typeIds);
+  List<ReservationResponse> findOwnHistoryAfter(@Param("userId") UUID userId,
+      @Param("startTime") LocalDateTime startTime, @Param("id") UUID id, Limit limit);
 }
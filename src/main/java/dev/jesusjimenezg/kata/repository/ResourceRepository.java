@@ -3,6 +3,8 @@ package dev.jesusjimenezg.kata.repository;
 import dev.jesusjimenezg.kata.model.Resource;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -27,4 +29,21 @@ public interface ResourceRepository extends JpaRepository<Resource, UUID>, JpaSp
     /** Resources of a specific type, further constrained by allowed types. */
     List<Resource> findByResourceTypeIdAndResourceTypeIdIn(Integer resourceTypeId,
             Collection<Integer> allowedTypeIds);
+
+    /** Resources whose type the viewer can access (joined against the permission view). */
+    @Query("""
+            SELECT r FROM Resource r
+            WHERE r.resourceType.id IN (
+                SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+            """)
+    List<Resource> findVisibleTo(@Param("viewerId") UUID viewerId);
+
+    /** Active resources whose type the viewer can access. */
+    @Query("""
+            SELECT r FROM Resource r
+            WHERE r.active = true
+              AND r.resourceType.id IN (
+                SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+            """)
+    List<Resource> findActiveVisibleTo(@Param("viewerId") UUID viewerId);
 }
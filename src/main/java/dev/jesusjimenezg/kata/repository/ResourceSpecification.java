@@ -1,15 +1,28 @@
 package dev.jesusjimenezg.kata.repository;
 
 import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.model.ResourceSearchDocument;
+import dev.jesusjimenezg.kata.model.UserAllowedResourceType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
 
 /**
  * Dynamic JPA Specifications for filtering resources.
  */
 public final class ResourceSpecification {
 
+    private static final char LIKE_ESCAPE = '\\';
+
     private ResourceSpecification() {
     }
 
@@ -20,6 +33,20 @@ public final class ResourceSpecification {
         return (root, query, cb) -> root.get("resourceType").get("id").in(typeIds);
     }
 
+    /**
+     * Restrict to resource types the viewer can access, as a subquery against the
+     * {@code v_user_allowed_resource_types} view (permission filter).
+     */
+    public static Specification<Resource> isVisibleTo(UUID viewerId) {
+        return (root, query, cb) -> {
+            Subquery<Integer> allowed = query.subquery(Integer.class);
+            Root<UserAllowedResourceType> permission = allowed.from(UserAllowedResourceType.class);
+            allowed.select(permission.get("resourceTypeId"))
+                    .where(cb.equal(permission.get("userId"), viewerId));
+            return root.get("resourceType").get("id").in(allowed);
+        };
+    }
+
     /** Restrict to a specific resource-type ID. */
     public static Specification<Resource> hasTypeId(Integer typeId) {
         return (root, query, cb) -> cb.equal(root.get("resourceType").get("id"), typeId);
@@ -31,15 +58,105 @@ public final class ResourceSpecification {
     }
 
     /**
-     * Case-insensitive LIKE search across name, description, and location.
+     * Text search across name, description and location, backed by the
+     * generated columns of {@link ResourceSearchDocument} and their GIN
+     * indexes. A resource matches when the text matches it as a web-search
+     * style query, is trigram-similar to one of its words (tolerating typos),
+     * or is a case-insensitive substring of it ({@code %} and {@code _} in the
+     * text match themselves). Combine with
+     * {@link #orderedByRelevance(String)} to rank the matches.
+     */
+    public static Specification<Resource> matchesText(String text) {
+        return (root, query, cb) -> {
+            Expression<String> terms = cb.literal(text);
+            String lowerText = text.toLowerCase(Locale.ROOT);
+            Expression<String> lowered = cb.literal(lowerText);
+
+            Subquery<UUID> matching = query.subquery(UUID.class);
+            Root<ResourceSearchDocument> document = matching.from(ResourceSearchDocument.class);
+            matching.select(document.get("id")).where(cb.or(
+                    cb.isTrue(cb.function("fts_match", Boolean.class, document.get("searchVector"), terms)),
+                    cb.isTrue(cb.function("trgm_word_match", Boolean.class, lowered, document.get("searchText"))),
+                    cb.like(document.get("searchText"), "%" + escapeLike(lowerText) + "%", LIKE_ESCAPE)));
+            return root.get("id").in(matching);
+        };
+    }
+
+    /** Orders {@link #matchesText(String)} results by relevance, then by name. */
+    public static Specification<Resource> orderedByRelevance(String text) {
+        return (root, query, cb) -> {
+            // Count queries (paged lookups) take no ordering
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<String> lowered = cb.literal(text.toLowerCase(Locale.ROOT));
+                Subquery<Double> rank = query.subquery(Double.class);
+                Root<ResourceSearchDocument> ranked = rank.from(ResourceSearchDocument.class);
+                rank.select(cb.sum(
+                        cb.function("fts_rank", Double.class, ranked.get("searchVector"), cb.literal(text)),
+                        cb.function("trgm_word_similarity", Double.class, lowered, ranked.get("searchText"))))
+                        .where(cb.equal(ranked.get("id"), root.get("id")));
+                query.orderBy(cb.desc(rank), cb.asc(byteOrdered(cb, root.get("name"))));
+            }
+            return cb.conjunction();
+        };
+    }
+
+    /**
+     * Keyset page by name: ordered by name (unique, so no tie-breaker) and, when
+     * {@code afterName} is given, starting after it. Names compare under the
+     * {@code "C"} collation, the order the in-memory catalog and its cursors use,
+     * whatever the column's collation is. Served by the V11 indexes.
+     */
+    public static Specification<Resource> orderedByName(boolean descending, String afterName) {
+        return (root, query, cb) -> {
+            Expression<String> name = byteOrdered(cb, root.get("name"));
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(descending ? cb.desc(name) : cb.asc(name));
+            }
+            if (afterName == null) {
+                return cb.conjunction();
+            }
+            return descending ? cb.lessThan(name, afterName) : cb.greaterThan(name, afterName);
+        };
+    }
+
+    /**
+     * Keyset page by creation time, tied by ID: ordered by
+     * {@code (createdAt, id)} and, when {@code afterCreatedAt} is given,
+     * starting after that row. The row comparison lets the V11 indexes seek
+     * straight to it.
      */
-    public static Specification<Resource> searchText(String text) {
+    public static Specification<Resource> orderedByCreatedAt(boolean descending, LocalDateTime afterCreatedAt,
+            UUID afterId) {
         return (root, query, cb) -> {
-            String pattern = "%" + text.toLowerCase() + "%";
-            return cb.or(
-                    cb.like(cb.lower(root.get("name")), pattern),
-                    cb.like(cb.lower(root.get("description")), pattern),
-                    cb.like(cb.lower(root.get("location")), pattern));
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(descending
+                        ? List.of(cb.desc(createdAt), cb.desc(id))
+                        : List.of(cb.asc(createdAt), cb.asc(id)));
+            }
+            if (afterCreatedAt == null) {
+                return cb.conjunction();
+            }
+            return cb.isTrue(cb.function(descending ? "row_before" : "row_after", Boolean.class,
+                    createdAt, id, cb.literal(afterCreatedAt), cb.literal(afterId)));
         };
     }
+
+    private static Expression<String> byteOrdered(CriteriaBuilder cb, Expression<String> text) {
+        return cb.function("c_collated", String.class, text);
+    }
+
+    /** Escapes the LIKE wildcards of {@code text} (and the escape character) with {@link #LIKE_ESCAPE}. */
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
 }
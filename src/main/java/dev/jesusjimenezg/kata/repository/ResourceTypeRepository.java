@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface ResourceTypeRepository extends JpaRepository<ResourceType, Integer> {
@@ -24,6 +25,30 @@ public interface ResourceTypeRepository extends JpaRepository<ResourceType, Inte
             """, nativeQuery = true)
     List<Integer> findAllowedResourceTypeIdsByRoleNames(@Param("roleNames") Collection<String> roleNames);
 
+    /** Every (role name, resource type ID) permission pair. */
+    @Query(value = """
+            SELECT r.name AS "roleName", rtp.resource_type_id AS "resourceTypeId"
+            FROM role_resource_type_permission rtp
+            JOIN role r ON rtp.role_id = r.id
+            """, nativeQuery = true)
+    List<RolePermission> findAllRolePermissions();
+
     /** Resource types filtered by a set of IDs. */
     List<ResourceType> findByIdIn(Collection<Integer> ids);
+
+    /** Resource types the viewer can access (joined against the permission view). */
+    @Query("""
+            SELECT rt FROM ResourceType rt
+            WHERE rt.id IN (
+                SELECT a.resourceTypeId FROM UserAllowedResourceType a WHERE a.userId = :viewerId)
+            """)
+    List<ResourceType> findVisibleTo(@Param("viewerId") UUID viewerId);
+
+    /** Projection of a single role → resource type permission. */
+    interface RolePermission {
+
+        String getRoleName();
+
+        Integer getResourceTypeId();
+    }
 }
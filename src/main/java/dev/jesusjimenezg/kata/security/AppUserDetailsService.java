@@ -3,7 +3,6 @@ package dev.jesusjimenezg.kata.security;
 import dev.jesusjimenezg.kata.model.AppUser;
 import dev.jesusjimenezg.kata.repository.AppUserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -29,7 +28,7 @@ public class AppUserDetailsService implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
                 .toList();
 
-        return new User(appUser.getEmail(), appUser.getPasswordHash(), appUser.isEnabled(),
-                true, true, true, authorities);
+        return new AuthenticatedUser(appUser.getId(), appUser.getEmail(), appUser.getPasswordHash(),
+                appUser.isEnabled(), authorities);
     }
 }
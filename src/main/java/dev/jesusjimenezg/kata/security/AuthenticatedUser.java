@@ -0,0 +1,26 @@
+package dev.jesusjimenezg.kata.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Authenticated principal that also carries the user's ID, so services can
+ * reference the caller without looking the user up by email.
+ */
+public class AuthenticatedUser extends User {
+
+    private final UUID id;
+
+    public AuthenticatedUser(UUID id, String username, String password, boolean enabled,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
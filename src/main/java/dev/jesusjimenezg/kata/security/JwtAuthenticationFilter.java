@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,10 +22,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final boolean statelessAuthentication;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+            UserDetailsService userDetailsService,
+            UserStatusCache userStatusCache,
+            @Value("${jwt.stateless-authentication:true}") boolean statelessAuthentication) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
+        this.statelessAuthentication = statelessAuthentication;
     }
 
     @Override
@@ -43,19 +51,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String jwt = authHeader.substring(7);
 
         try {
-            String username = jwtService.extractUsername(jwt);
+            // Signature and expiry are verified once here; repeated tokens hit the claims cache
+            VerifiedToken token = jwtService.verify(jwt);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    // Use roles from the token claim instead of UserDetails to stay in sync
-                    List<SimpleGrantedAuthority> authorities = jwtService.extractRoles(jwt).stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .toList();
+            if (token.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Tokens issued before the uid claim existed fall back to a user lookup
+                UserDetails userDetails = statelessAuthentication && token.userId() != null
+                        ? fromClaims(token)
+                        : userDetailsService.loadUserByUsername(token.subject());
 
+                if (userDetails != null && token.subject().equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-                            null, authorities);
+                            null, authorities(token));
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -66,4 +73,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the principal from verified claims only. Returns {@code null} when the
+     * user was disabled, changed or logged out after the token was issued.
+     */
+    private UserDetails fromClaims(VerifiedToken token) {
+        if (!userStatusCache.isCurrent(token.subject(), token.issuedAt())) {
+            return null;
+        }
+        return new AuthenticatedUser(token.userId(), token.subject(), "", true, authorities(token));
+    }
+
+    // Use roles from the token claim instead of UserDetails to stay in sync
+    private List<SimpleGrantedAuthority> authorities(VerifiedToken token) {
+        return token.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
 }
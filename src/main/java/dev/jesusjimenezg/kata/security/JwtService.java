@@ -1,6 +1,7 @@
 package dev.jesusjimenezg.kata.security;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -13,66 +14,85 @@ import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
 
     private final SecretKey signingKey;
+    private final JwtParser parser;
     private final long accessTokenExpirationMs;
+    private final VerifiedClaimsCache claimsCache;
 
     public JwtService(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.access-token-expiration-ms}") long accessTokenExpirationMs) {
+            @Value("${jwt.access-token-expiration-ms}") long accessTokenExpirationMs,
+            @Value("${jwt.claims-cache-max-entries:10000}") int claimsCacheMaxEntries) {
         this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
         this.accessTokenExpirationMs = accessTokenExpirationMs;
+        this.claimsCache = new VerifiedClaimsCache(claimsCacheMaxEntries);
     }
 
+    /**
+     * Issues an access token. When the principal is an {@link AuthenticatedUser},
+     * its ID is embedded as the {@code uid} claim. The issue time is also kept to
+     * the millisecond ({@code iat_ms}), so that {@link UserStatusCache} can tell a
+     * token issued right after a change from one issued right before it.
+     */
     public String generateAccessToken(UserDetails userDetails) {
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
 
         Instant now = Instant.now();
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userDetails.getUsername())
-                .claim("roles", roles)
+                .claim(VerifiedToken.ROLES_CLAIM, roles)
+                .claim(VerifiedToken.ISSUED_AT_MS_CLAIM, now.toEpochMilli());
+        if (userDetails instanceof AuthenticatedUser user && user.getId() != null) {
+            builder.claim(VerifiedToken.USER_ID_CLAIM, user.getId().toString());
+        }
+        return builder
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plusMillis(accessTokenExpirationMs)))
                 .signWith(signingKey)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    /**
+     * Verifies the token signature and expiration exactly once and returns its
+     * claims. Tokens seen before are answered from the verified-claims cache
+     * without any HMAC work; invalid tokens throw a
+     * {@link io.jsonwebtoken.JwtException} and are never cached.
+     */
+    public VerifiedToken verify(String token) {
+        Instant now = Instant.now();
+        String digest = VerifiedClaimsCache.digest(token);
 
-    public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        @SuppressWarnings("unchecked")
-        List<String> roles = claims.get("roles", List.class);
-        return roles != null ? roles : List.of();
+        VerifiedToken cached = claimsCache.get(digest, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = VerifiedToken.from(parser.parseSignedClaims(token).getPayload());
+        claimsCache.put(digest, verified, now);
+        return verified;
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public String extractUsername(String token) {
+        return verify(token).subject();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    public List<String> extractRoles(String token) {
+        return verify(token).roles();
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = extractAllClaims(token);
-        return resolver.apply(claims);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        VerifiedToken verified = verify(token);
+        return verified.subject().equals(userDetails.getUsername()) && !verified.isExpired(Instant.now());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(signingKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public VerifiedClaimsCache getClaimsCache() {
+        return claimsCache;
     }
 }
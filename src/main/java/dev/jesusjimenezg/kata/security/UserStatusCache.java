@@ -0,0 +1,60 @@
+package dev.jesusjimenezg.kata.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of users whose authentication state changed (roles, enabled
+ * flag, logout) while access tokens issued to them may still be alive.
+ * <p>
+ * Access tokens issued before the recorded change are rejected, so the request
+ * filter can authenticate from token claims alone without loading the user.
+ * Entries are dropped once every token issued before the change has expired,
+ * which keeps the table proportional to the changes of the last token lifetime.
+ * The table is local to this instance.
+ */
+@Component
+public class UserStatusCache {
+
+    private final Map<String, Instant> changedAt = new ConcurrentHashMap<>();
+    private final long accessTokenExpirationMs;
+
+    public UserStatusCache(@Value("${jwt.access-token-expiration-ms}") long accessTokenExpirationMs) {
+        this.accessTokenExpirationMs = accessTokenExpirationMs;
+    }
+
+    /**
+     * Records that the user's authentication state changed now, to the
+     * millisecond.
+     */
+    public void markChanged(String email) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        changedAt.put(email, now);
+        Instant horizon = now.minusMillis(accessTokenExpirationMs);
+        changedAt.values().removeIf(changed -> changed.isBefore(horizon));
+    }
+
+    /**
+     * Returns {@code true} if a token issued at {@code issuedAt} for the given
+     * user still reflects the user's current state, i.e. was issued strictly
+     * after the last change.
+     * <p>
+     * Tokens carry their issue time to the millisecond (see
+     * {@link VerifiedToken#issuedAt()}). Older tokens only have the
+     * second-precision {@code iat}, the start of the second they were issued
+     * in, so any of them issued in the same second as the change is rejected:
+     * it may predate it.
+     */
+    public boolean isCurrent(String email, Instant issuedAt) {
+        Instant changed = changedAt.get(email);
+        if (changed == null) {
+            return true;
+        }
+        return issuedAt != null && issuedAt.isAfter(changed);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.jesusjimenezg.kata.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of verified access-token claims keyed by the SHA-256 digest of
+ * the raw token.
+ * <p>
+ * Entries never outlive the token they were verified from: an expired entry is
+ * dropped on read, so the next lookup falls through to a full parse, which then
+ * rejects the token. When the cache is full, expired entries are purged first
+ * and, if that is not enough, a slice of arbitrary entries is evicted.
+ */
+public final class VerifiedClaimsCache {
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedClaimsCache(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * Returns the cached claims for the given digest, or {@code null} when absent
+     * or expired.
+     */
+    public VerifiedToken get(String digest, Instant now) {
+        VerifiedToken token = entries.get(digest);
+        if (token == null) {
+            misses.increment();
+            return null;
+        }
+        if (token.isExpired(now)) {
+            entries.remove(digest, token);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+
+    public void put(String digest, VerifiedToken token, Instant now) {
+        if (maxEntries == 0 || token.isExpired(now)) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(digest, token);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /** SHA-256 digest of the raw token, hex encoded. */
+    public static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void evict(Instant now) {
+        entries.values().removeIf(token -> token.isExpired(now));
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
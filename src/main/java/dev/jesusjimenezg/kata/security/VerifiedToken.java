@@ -0,0 +1,47 @@
+package dev.jesusjimenezg.kata.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claims of an access token whose signature and expiration have already been
+ * verified. Immutable, so a single instance can be shared by every request that
+ * presents the same token.
+ * <p>
+ * {@code issuedAt} comes from the {@code iat_ms} claim (milliseconds) when the
+ * token has it, and from the second-precision {@code iat} otherwise.
+ */
+public record VerifiedToken(
+        String subject,
+        UUID userId,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
+    static VerifiedToken from(Claims claims) {
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get(ROLES_CLAIM, List.class);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+        Instant issuedAt = issuedAtMs != null
+                ? Instant.ofEpochMilli(issuedAtMs)
+                : claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null,
+                roles != null ? List.copyOf(roles) : List.of(),
+                issuedAt,
+                claims.getExpiration().toInstant());
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
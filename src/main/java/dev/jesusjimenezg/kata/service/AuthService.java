@@ -10,7 +10,9 @@ import dev.jesusjimenezg.kata.model.Role;
 import dev.jesusjimenezg.kata.repository.AppUserRepository;
 import dev.jesusjimenezg.kata.repository.RefreshTokenRepository;
 import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
 import dev.jesusjimenezg.kata.security.JwtService;
+import dev.jesusjimenezg.kata.security.UserStatusCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -39,6 +41,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserStatusCache userStatusCache;
     private final long refreshTokenExpirationMs;
 
     public AuthService(
@@ -48,6 +51,7 @@ public class AuthService {
             PasswordEncoder passwordEncoder,
             JwtService jwtService,
             AuthenticationManager authenticationManager,
+            UserStatusCache userStatusCache,
             @Value("${jwt.refresh-token-expiration-ms}") long refreshTokenExpirationMs) {
         this.appUserRepository = appUserRepository;
         this.roleRepository = roleRepository;
@@ -55,6 +59,7 @@ public class AuthService {
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.userStatusCache = userStatusCache;
         this.refreshTokenExpirationMs = refreshTokenExpirationMs;
     }
 
@@ -103,6 +108,8 @@ public class AuthService {
         AppUser user = appUserRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + email));
         refreshTokenRepository.revokeAllByUserId(user.getId());
+        // Access tokens issued before logout stop authenticating as well
+        userStatusCache.markChanged(email);
     }
 
     @Transactional
@@ -132,8 +139,8 @@ public class AuthService {
 
         // Build response using the user directly (no re-auth needed)
         String accessToken = jwtService.generateAccessToken(
-                new org.springframework.security.core.userdetails.User(
-                        user.getEmail(), "", authentication.getAuthorities()));
+                new AuthenticatedUser(user.getId(), user.getEmail(), "", user.isEnabled(),
+                        authentication.getAuthorities()));
         String rawRefreshToken = generateAndStoreRefreshToken(user);
 
         return new AuthResponse(accessToken, rawRefreshToken, user.getEmail());
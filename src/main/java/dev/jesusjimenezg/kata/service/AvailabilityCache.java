@@ -0,0 +1,150 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.AvailabilitySlot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of computed availability slots keyed by resource and window.
+ * <p>
+ * Each entry records the {@link ReservationVersionTracker} version of its
+ * resource read <em>before</em> loading, so a write that commits while the
+ * slots are being computed still invalidates them. Concurrent misses for the
+ * same key share one load. Entries also expire after a maximum age; when the
+ * cache is full, stale entries are purged first and then a slice of arbitrary
+ * entries is evicted.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final ReservationVersionTracker versions;
+    private final int maxEntries;
+    private final long maxAgeNanos;
+    private final Map<Key, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AvailabilityCache(ReservationVersionTracker versions,
+            @Value("${app.reservations.availability-cache.max-entries:10000}") int maxEntries,
+            @Value("${app.reservations.availability-cache.max-age-seconds:300}") int maxAgeSeconds) {
+        this.versions = versions;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(Math.max(0, maxAgeSeconds));
+    }
+
+    /**
+     * Returns the cached slots for the window, computing them with
+     * {@code loader} when absent, expired or outdated by a reservation write.
+     */
+    public List<AvailabilitySlot> get(UUID resourceId, LocalDateTime windowStart, LocalDateTime windowEnd,
+            Supplier<List<AvailabilitySlot>> loader) {
+        if (maxEntries == 0) {
+            return loader.get();
+        }
+        Key key = new Key(resourceId, windowStart, windowEnd);
+        while (true) {
+            long version = versions.current(resourceId);
+            CompletableFuture<Entry> current = entries.get(key);
+            if (current != null) {
+                Entry entry = await(current);
+                if (entry != null && isFresh(entry, version)) {
+                    hits.increment();
+                    return entry.slots();
+                }
+            }
+
+            CompletableFuture<Entry> loading = new CompletableFuture<>();
+            boolean claimed = current == null
+                    ? entries.putIfAbsent(key, loading) == null
+                    : entries.replace(key, current, loading);
+            if (!claimed) {
+                // Another caller started a load for this key first; wait for it instead
+                continue;
+            }
+
+            misses.increment();
+            try {
+                List<AvailabilitySlot> slots = List.copyOf(loader.get());
+                loading.complete(new Entry(version, System.nanoTime(), slots));
+                if (entries.size() > maxEntries) {
+                    evict();
+                }
+                return slots;
+            } catch (RuntimeException ex) {
+                entries.remove(key, loading);
+                loading.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /** Share of lookups served without loading, or 0 before the first lookup. */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /** Waits for an in-flight load; {@code null} if it failed. */
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            return null;
+        }
+    }
+
+    private boolean isFresh(Entry entry, long version) {
+        return entry.version() == version && System.nanoTime() - entry.loadedAt() < maxAgeNanos;
+    }
+
+    private void evict() {
+        entries.entrySet().removeIf(e -> {
+            if (!e.getValue().isDone()) {
+                return false;
+            }
+            Entry entry = await(e.getValue());
+            return entry == null || !isFresh(entry, versions.current(e.getKey().resourceId()));
+        });
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Key(UUID resourceId, LocalDateTime windowStart, LocalDateTime windowEnd) {
+    }
+
+    private record Entry(long version, long loadedAt, List<AvailabilitySlot> slots) {
+    }
+}
@@ -0,0 +1,222 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.SlotSuggestion;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.repository.ReservationInterval;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Searches for the earliest free slots of a given length among the active
+ * resources of a type.
+ */
+@Service
+public class AvailabilitySearchService {
+
+    static final int MAX_RESULTS = 50;
+
+    private static final Duration SEARCH_WINDOW = Duration.ofDays(1);
+
+    private final ResourceRepository resourceRepository;
+    private final ReservationRepository reservationRepository;
+    private final ResourcePermissionService permissionService;
+    private final ReservationIntervalIndex intervalIndex;
+    private final int horizonDays;
+
+    public AvailabilitySearchService(ResourceRepository resourceRepository,
+            ReservationRepository reservationRepository,
+            ResourcePermissionService permissionService,
+            ReservationIntervalIndex intervalIndex,
+            @Value("${app.reservations.next-available.horizon-days:14}") int horizonDays) {
+        this.resourceRepository = resourceRepository;
+        this.reservationRepository = reservationRepository;
+        this.permissionService = permissionService;
+        this.intervalIndex = intervalIndex;
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Returns up to {@code limit} free slots of {@code duration} starting at or
+     * after {@code earliestStart}, earliest first, across every active resource
+     * of the type. Each resource contributes the start of each of its free gaps
+     * that fits the duration; the per-resource gap sequences are merged with a
+     * priority queue that stops as soon as {@code limit} slots are found. The
+     * search does not look further than the configured horizon. An
+     * {@code earliestStart} earlier than the next whole minute is moved up to it,
+     * since bookings may not start in the past.
+     * <p>
+     * Busy intervals are loaded one window at a time (a day, or the duration if
+     * longer), and only for the resources whose next gap is not settled by what
+     * is already loaded. A gap is settled once it fits before the next known busy
+     * interval or before the end of the loaded windows; every settled gap then
+     * starts before any unsettled one can, so settled gaps are emitted right away
+     * and a search that finds its slots early never reads the rest of the horizon.
+     */
+    @Transactional(readOnly = true)
+    public List<SlotSuggestion> findNextAvailable(Integer resourceTypeId, Duration duration,
+            LocalDateTime earliestStart, int limit, UserDetails userDetails) {
+        if (resourceTypeId == null) {
+            throw new IllegalArgumentException("Resource type ID is required");
+        }
+        if (duration == null || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        if (duration.compareTo(Duration.ofDays(horizonDays)) > 0) {
+            throw new IllegalArgumentException("Duration must not exceed " + horizonDays + " days");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RESULTS);
+        }
+        permissionService.checkAccess(userDetails, resourceTypeId);
+        LocalDateTime nextMinute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime searchStart = earliestStart.isBefore(nextMinute) ? nextMinute : earliestStart;
+
+        List<Resource> resources = resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(resourceTypeId));
+        LocalDateTime horizon = searchStart.plusDays(horizonDays);
+        Duration window = duration.compareTo(SEARCH_WINDOW) > 0 ? duration : SEARCH_WINDOW;
+
+        // Ties on start time go to the resource that sorts first by name
+        PriorityQueue<FreeGaps> queue = new PriorityQueue<>(Comparator
+                .comparing((FreeGaps gaps) -> gaps.candidate)
+                .thenComparing(gaps -> gaps.resource.getName()));
+        List<FreeGaps> unsettled = new ArrayList<>();
+        for (Resource resource : resources) {
+            unsettled.add(new FreeGaps(resource, searchStart, horizon, duration));
+        }
+
+        List<SlotSuggestion> result = new ArrayList<>(limit);
+        LocalDateTime loadedUntil = searchStart;
+        while (true) {
+            while (result.size() < limit && !queue.isEmpty()) {
+                FreeGaps gaps = queue.poll();
+                result.add(new SlotSuggestion(gaps.resource.getId(), gaps.resource.getName(), gaps.candidate,
+                        gaps.candidate.plus(duration)));
+                gaps.skipGap();
+                schedule(gaps, queue, unsettled);
+            }
+            if (result.size() == limit || unsettled.isEmpty()) {
+                return result;
+            }
+
+            LocalDateTime from = loadedUntil;
+            loadedUntil = horizon.isAfter(from.plus(window)) ? from.plus(window) : horizon;
+            Map<UUID, List<ReservationInterval>> busy = loadBusy(unsettled, from, loadedUntil);
+            List<FreeGaps> loaded = new ArrayList<>(unsettled);
+            unsettled.clear();
+            for (FreeGaps gaps : loaded) {
+                // Intervals that began in an earlier window were loaded with it
+                List<ReservationInterval> added = busy.getOrDefault(gaps.resource.getId(), List.of());
+                gaps.load(from.equals(searchStart) ? added
+                        : added.stream().filter(i -> !i.startTime().isBefore(from)).toList(), loadedUntil);
+                schedule(gaps, queue, unsettled);
+            }
+        }
+    }
+
+    private static void schedule(FreeGaps gaps, PriorityQueue<FreeGaps> queue, List<FreeGaps> unsettled) {
+        if (gaps.candidate != null) {
+            queue.add(gaps);
+        } else if (!gaps.exhausted) {
+            unsettled.add(gaps);
+        }
+    }
+
+    private Map<UUID, List<ReservationInterval>> loadBusy(List<FreeGaps> gaps, LocalDateTime from,
+            LocalDateTime to) {
+        if (intervalIndex.isReady()) {
+            return gaps.stream().collect(Collectors.toMap(g -> g.resource.getId(),
+                    g -> intervalIndex.findInWindow(g.resource.getId(), from, to)));
+        }
+        // One query for every resource; grouping keeps the start order within each resource
+        return reservationRepository.findActiveIntervalsInWindowForResources(
+                gaps.stream().map(g -> g.resource.getId()).toList(), from, to).stream()
+                .collect(Collectors.groupingBy(ReservationInterval::resourceId));
+    }
+
+    /**
+     * Walks the free gaps of one resource in time order over the busy intervals
+     * loaded so far. {@link #candidate} is the start of the current gap once it
+     * is known to fit the duration; while it is {@code null}, the resource needs
+     * the next window, unless it is {@link #exhausted} (no further gap fits
+     * before the horizon).
+     */
+    private static final class FreeGaps {
+
+        private final Resource resource;
+        private final List<ReservationInterval> busy = new ArrayList<>();
+        private final LocalDateTime horizon;
+        private final Duration duration;
+        private LocalDateTime loadedUntil;
+        private int next;
+        private LocalDateTime cursor;
+        private LocalDateTime candidate;
+        private boolean exhausted;
+        /** The gap at the cursor was already emitted; it ends at the next busy interval. */
+        private boolean inEmittedGap;
+
+        FreeGaps(Resource resource, LocalDateTime from, LocalDateTime horizon, Duration duration) {
+            this.resource = resource;
+            this.horizon = horizon;
+            this.duration = duration;
+            this.cursor = from;
+            this.loadedUntil = from;
+        }
+
+        /** Appends the busy intervals of the next window, which ends at {@code until}. */
+        void load(List<ReservationInterval> intervals, LocalDateTime until) {
+            busy.addAll(intervals);
+            loadedUntil = until;
+            findGap();
+        }
+
+        /** Moves past the current gap to the next one that fits. */
+        void skipGap() {
+            candidate = null;
+            inEmittedGap = true;
+            findGap();
+        }
+
+        private void findGap() {
+            while (true) {
+                if (next < busy.size()) {
+                    if (!inEmittedGap && !cursor.plus(duration).isAfter(busy.get(next).startTime())) {
+                        candidate = cursor;
+                        return;
+                    }
+                    passBusy();
+                    inEmittedGap = false;
+                    continue;
+                }
+                // Nothing more is known: busy intervals not loaded yet start at or after loadedUntil
+                if (!inEmittedGap && !cursor.plus(duration).isAfter(loadedUntil)) {
+                    candidate = cursor;
+                } else {
+                    exhausted = !loadedUntil.isBefore(horizon);
+                }
+                return;
+            }
+        }
+
+        private void passBusy() {
+            LocalDateTime end = busy.get(next++).endTime();
+            if (end.isAfter(cursor)) {
+                cursor = end;
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dev.jesusjimenezg.kata.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of serialized catalog listings (resources, resource types).
+ * <p>
+ * Those listings only depend on the request's filters and on the caller's
+ * allowed resource types, and only change with the {@link ResourceCatalog}
+ * version, so callers sharing a permission set share one serialized body.
+ * Entries are keyed by (endpoint, filter parameters, allowed-type mask) and
+ * record the catalog version read <em>before</em> loading, so a write that
+ * commits meanwhile still outdates them. The strong ETag is a digest of the
+ * serialized body, so it means the same across restarts and instances (whose
+ * versions count independently) and never matches a different body. When the
+ * cache is full, outdated entries are purged first and then everything is
+ * dropped.
+ * <p>
+ * Without a loaded catalog there is no version to key on: bodies are then
+ * serialized on every call and carry no ETag.
+ */
+@Component
+public class CatalogResponseCache {
+
+    /** Bodies below this size are not worth compressing. */
+    static final int GZIP_MIN_BYTES = 1024;
+
+    private final ResourceCatalog catalog;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public CatalogResponseCache(ResourceCatalog catalog, ObjectMapper objectMapper,
+            @Value("${app.resources.response-cache.max-entries:1000}") int maxEntries) {
+        this.catalog = catalog;
+        this.objectMapper = objectMapper;
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * Returns the serialized body for the key, computing it with {@code loader}
+     * when absent or outdated by a catalog change.
+     */
+    public SerializedResponse get(String endpoint, String params, long[] allowedTypes, Supplier<?> loader) {
+        if (maxEntries == 0 || !catalog.isReady()) {
+            return new SerializedResponse(serialize(loader.get()), null, null);
+        }
+        Key key = new Key(endpoint, params, allowedTypes);
+        long version = catalog.version();
+        Entry current = entries.get(key);
+        if (current != null && current.version() == version) {
+            return current.response();
+        }
+
+        byte[] json = serialize(loader.get());
+        SerializedResponse response = new SerializedResponse(json,
+                json.length >= GZIP_MIN_BYTES ? gzip(json) : null,
+                "\"" + digest(json) + "\"");
+        if (entries.size() >= maxEntries) {
+            evict(version);
+        }
+        entries.put(key, new Entry(version, response));
+        return response;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long version) {
+        entries.values().removeIf(entry -> entry.version() != version);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    /** First 128 bits of the body's SHA-256, in hex. */
+    private static String digest(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private record Key(String endpoint, String params, long[] allowedTypes) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && endpoint.equals(other.endpoint)
+                    && params.equals(other.params)
+                    && Arrays.equals(allowedTypes, other.allowedTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return (endpoint.hashCode() * 31 + params.hashCode()) * 31 + Arrays.hashCode(allowedTypes);
+        }
+    }
+
+    private record Entry(long version, SerializedResponse response) {
+    }
+}
@@ -0,0 +1,314 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable snapshot of the resource catalog. Resources are kept sorted by name
+ * (in {@link ResourceSort#NAME_ORDER}, the database's order) and addressed by
+ * their position (ordinal); per-type and active bitsets (packed into
+ * {@code long} words, like {@link PermissionMatrix}) select them by filter, and
+ * an inverted index from trigrams to ordinals serves text search.
+ * <p>
+ * Text search mirrors the database search: a resource matches when the text is
+ * a substring of its name, location or description, or when enough of the
+ * text's word trigrams appear in them (typo tolerance, close to
+ * {@code pg_trgm}'s {@code <%}). Matches are ranked by trigram similarity, with
+ * substring and name matches first, then by name.
+ * <p>
+ * Listings are paged by keyset: a second ordering by creation time is kept
+ * alongside the name order, and a page starts with a binary search for the
+ * cursor's position in either one.
+ */
+final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = of(List.of(), 0);
+
+    // Same default as pg_trgm.word_similarity_threshold
+    private static final double SIMILARITY_THRESHOLD = 0.6;
+    private static final int[] NO_ORDINALS = new int[0];
+    private static final long[] NO_BITS = new long[0];
+
+    private final long version;
+    private final ResourceResponse[] resources;
+    private final String[] texts;
+    // Ordinals by (createdAt, id); the name order is the ordinals themselves
+    private final int[] byCreatedAt;
+    private final Map<UUID, Integer> ordinals;
+    private final Map<Integer, long[]> byType;
+    private final long[] active;
+    private final Map<String, int[]> postings;
+    private final Set<Integer> typeIds;
+
+    private CatalogSnapshot(long version, ResourceResponse[] resources, String[] texts, int[] byCreatedAt,
+            Map<UUID, Integer> ordinals, Map<Integer, long[]> byType, long[] active, Map<String, int[]> postings,
+            Set<Integer> typeIds) {
+        this.version = version;
+        this.resources = resources;
+        this.texts = texts;
+        this.byCreatedAt = byCreatedAt;
+        this.ordinals = ordinals;
+        this.byType = byType;
+        this.active = active;
+        this.postings = postings;
+        this.typeIds = typeIds;
+    }
+
+    /** A snapshot whose resource types are those its resources have. */
+    static CatalogSnapshot of(List<ResourceResponse> resources, long version) {
+        return of(resources, resources.stream().map(r -> r.resourceType().id()).toList(), version);
+    }
+
+    static CatalogSnapshot of(List<ResourceResponse> resources, Collection<Integer> typeIds, long version) {
+        ResourceResponse[] sorted = resources.stream()
+                .sorted(Comparator.comparing(ResourceResponse::name, ResourceSort.NAME_ORDER))
+                .toArray(ResourceResponse[]::new);
+        int wordCount = (sorted.length + 63) >>> 6;
+        String[] texts = new String[sorted.length];
+        Map<UUID, Integer> ordinals = new HashMap<>();
+        Map<Integer, long[]> byType = new HashMap<>();
+        long[] active = new long[wordCount];
+        Map<String, List<Integer>> lists = new HashMap<>();
+
+        for (int i = 0; i < sorted.length; i++) {
+            ResourceResponse resource = sorted[i];
+            ordinals.put(resource.id(), i);
+            byType.computeIfAbsent(resource.resourceType().id(), id -> new long[wordCount])[i >>> 6] |= 1L << i;
+            if (resource.active()) {
+                active[i >>> 6] |= 1L << i;
+            }
+            texts[i] = searchText(resource);
+            for (String trigram : wordTrigrams(texts[i])) {
+                lists.computeIfAbsent(trigram, t -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<String, int[]> postings = new HashMap<>();
+        lists.forEach((trigram, list) -> postings.put(trigram, list.stream().mapToInt(Integer::intValue).toArray()));
+        int[] byCreatedAt = IntStream.range(0, sorted.length).boxed()
+                .sorted(Comparator.comparing((Integer i) -> sorted[i].createdAt())
+                        .thenComparing(i -> sorted[i].id().toString()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return new CatalogSnapshot(version, sorted, texts, byCreatedAt, Map.copyOf(ordinals), Map.copyOf(byType),
+                active, Map.copyOf(postings), Set.copyOf(typeIds));
+    }
+
+    long version() {
+        return version;
+    }
+
+    /** The resource with the given ID, or {@code null} when the snapshot does not hold it. */
+    ResourceResponse get(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? null : resources[ordinal];
+    }
+
+    /** Whether the snapshot holds the resource type, with or without resources. */
+    boolean hasType(Integer typeId) {
+        return typeId != null && typeIds.contains(typeId);
+    }
+
+    /** Resources passing the filters, ordered by name. */
+    List<ResourceResponse> list(long[] allowedTypes, boolean activeOnly, Integer typeId) {
+        long[] selected = select(allowedTypes, activeOnly, typeId);
+        List<ResourceResponse> result = new ArrayList<>();
+        for (int ordinal = next(selected, 0); ordinal >= 0; ordinal = next(selected, ordinal + 1)) {
+            result.add(resources[ordinal]);
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} resources passing the filters, in {@code sort} order
+     * (name or creation time) and after {@code after} when given. Skips only the
+     * filtered-out resources between the cursor and the end of the page.
+     */
+    List<ResourceResponse> page(long[] allowedTypes, boolean activeOnly, Integer typeId, ResourceSort sort,
+            ResourceCursor after, int limit) {
+        long[] selected = select(allowedTypes, activeOnly, typeId);
+        int[] order = sort.byName() ? null : byCreatedAt;
+        List<ResourceResponse> result = new ArrayList<>();
+        if (sort.descending()) {
+            // Last position before the cursor, walking down
+            int from = after == null ? resources.length - 1 : search(order, after, true) - 1;
+            for (int i = from; i >= 0 && result.size() < limit; i--) {
+                addIfSelected(result, selected, order == null ? i : order[i]);
+            }
+        } else {
+            // First position after the cursor, walking up
+            int from = after == null ? 0 : search(order, after, false);
+            for (int i = from; i < resources.length && result.size() < limit; i++) {
+                addIfSelected(result, selected, order == null ? i : order[i]);
+            }
+        }
+        return result;
+    }
+
+    /** Resources passing the filters and matching {@code text}, most relevant first. */
+    List<ResourceResponse> search(String text, long[] allowedTypes, boolean activeOnly, Integer typeId) {
+        String query = text.toLowerCase(Locale.ROOT);
+        long[] selected = select(allowedTypes, activeOnly, typeId);
+
+        // Similarity: share of the query's word trigrams found in each resource
+        Set<String> queryTrigrams = wordTrigrams(query);
+        int[] hits = count(queryTrigrams);
+        // Substring candidates: resources holding every inner trigram of the query
+        Set<String> innerTrigrams = innerTrigrams(query);
+        int[] innerHits = count(innerTrigrams);
+
+        List<Match> matches = new ArrayList<>();
+        for (int ordinal = next(selected, 0); ordinal >= 0; ordinal = next(selected, ordinal + 1)) {
+            double similarity = queryTrigrams.isEmpty() ? 0 : (double) hits[ordinal] / queryTrigrams.size();
+            boolean substring = innerHits[ordinal] == innerTrigrams.size() && texts[ordinal].contains(query);
+            if (!substring && similarity < SIMILARITY_THRESHOLD) {
+                continue;
+            }
+            double score = similarity;
+            if (substring) {
+                score += 1;
+                if (resources[ordinal].name().toLowerCase(Locale.ROOT).contains(query)) {
+                    score += 1;
+                }
+            }
+            matches.add(new Match(ordinal, score));
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed().thenComparingInt(Match::ordinal));
+        return matches.stream().map(match -> resources[match.ordinal()]).toList();
+    }
+
+    private long[] select(long[] allowedTypes, boolean activeOnly, Integer typeId) {
+        long[] selected = new long[active.length];
+        if (typeId != null) {
+            if (allows(allowedTypes, typeId)) {
+                or(selected, byType.getOrDefault(typeId, NO_BITS));
+            }
+        } else {
+            byType.forEach((type, bits) -> {
+                if (allows(allowedTypes, type)) {
+                    or(selected, bits);
+                }
+            });
+        }
+        if (activeOnly) {
+            for (int i = 0; i < selected.length; i++) {
+                selected[i] &= active[i];
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Binary search over {@code order} (the name order when {@code null}): the
+     * first position whose resource comes after the cursor, or, with
+     * {@code inclusive}, the first one not before it.
+     */
+    private int search(int[] order, ResourceCursor cursor, boolean inclusive) {
+        int low = 0;
+        int high = resources.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = cursor.compareTo(resources[order == null ? mid : order[mid]]);
+            if (comparison < 0 || (inclusive && comparison == 0)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private void addIfSelected(List<ResourceResponse> result, long[] selected, int ordinal) {
+        if ((selected[ordinal >>> 6] & (1L << ordinal)) != 0) {
+            result.add(resources[ordinal]);
+        }
+    }
+
+    private int[] count(Set<String> trigrams) {
+        int[] hits = new int[resources.length];
+        for (String trigram : trigrams) {
+            for (int ordinal : postings.getOrDefault(trigram, NO_ORDINALS)) {
+                hits[ordinal]++;
+            }
+        }
+        return hits;
+    }
+
+    private static boolean allows(long[] mask, int typeId) {
+        int word = typeId >>> 6;
+        return typeId >= 0 && word < mask.length && (mask[word] & (1L << typeId)) != 0;
+    }
+
+    private static void or(long[] target, long[] bits) {
+        for (int i = 0; i < bits.length; i++) {
+            target[i] |= bits[i];
+        }
+    }
+
+    /** First set bit at or after {@code from}, or -1. */
+    private static int next(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+
+    /** Same text as the {@code search_text} column: name, location and description. */
+    private static String searchText(ResourceResponse resource) {
+        return (resource.name() + " "
+                + (resource.location() == null ? "" : resource.location()) + " "
+                + (resource.description() == null ? "" : resource.description())).toLowerCase(Locale.ROOT);
+    }
+
+    /** Trigrams of each word padded like pg_trgm does: two spaces before, one after. */
+    static Set<String> wordTrigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /** Unpadded trigrams inside each word; any text containing {@code text} has them all. */
+    static Set<String> innerTrigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                trigrams.add(word.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private record Match(int ordinal, double score) {
+    }
+}
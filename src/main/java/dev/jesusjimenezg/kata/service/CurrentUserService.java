@@ -0,0 +1,35 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.model.AppUser;
+import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Resolves the caller's user ID from the authenticated principal.
+ */
+@Service
+public class CurrentUserService {
+
+    private final AppUserRepository appUserRepository;
+
+    public CurrentUserService(AppUserRepository appUserRepository) {
+        this.appUserRepository = appUserRepository;
+    }
+
+    /**
+     * Returns the ID carried by the token principal, falling back to a lookup by
+     * email for principals that do not carry it.
+     */
+    public UUID idOf(UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser user && user.getId() != null) {
+            return user.getId();
+        }
+        return appUserRepository.findByEmail(userDetails.getUsername())
+                .map(AppUser::getId)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+    }
+}
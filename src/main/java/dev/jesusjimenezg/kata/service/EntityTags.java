@@ -0,0 +1,123 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Weak ETags for read endpoints, built from version counters rather than from
+ * the response bodies, so a conditional GET can be answered before any query
+ * runs.
+ * <p>
+ * Every tag combines the {@link ResourceCatalog} version (resource names, types
+ * and permissions appear in every response), the {@link ReservationVersionTracker}
+ * counter that covers the data (per resource, per owner or overall) and the
+ * caller (user ID and allowed resource types). The tags are weak: they identify
+ * the state of the data, not the bytes of one encoding of it. Tags for a single
+ * entity also carry its ID, and are only given once the entity is known to exist
+ * and to be visible to the caller: a 304 must never stand in for a 403 or 404.
+ * <p>
+ * The counters only see writes made through this instance. Tags are therefore
+ * given only while the catalog is loaded, and reservation tags are off unless
+ * {@code app.reservations.etags.enabled=true}: bookings made by another
+ * instance, direct SQL or another node's completion job never bump them, and a
+ * stale tag would keep answering 304. Only turn them on when a single instance
+ * owns every write. Methods return {@code null} when no tag can be given. A random
+ * prefix per instance keeps equal counters of different instances (or runs)
+ * from matching.
+ */
+@Component
+public class EntityTags {
+
+    private final ResourceCatalog catalog;
+    private final ReservationVersionTracker reservationVersions;
+    private final ResourcePermissionService permissionService;
+    private final CurrentUserService currentUserService;
+    private final boolean reservationTagsEnabled;
+    private final String instance = UUID.randomUUID().toString().substring(0, 8);
+
+    public EntityTags(ResourceCatalog catalog,
+            ReservationVersionTracker reservationVersions,
+            ResourcePermissionService permissionService,
+            CurrentUserService currentUserService,
+            @Value("${app.reservations.etags.enabled:false}") boolean reservationTagsEnabled) {
+        this.catalog = catalog;
+        this.reservationVersions = reservationVersions;
+        this.permissionService = permissionService;
+        this.currentUserService = currentUserService;
+        this.reservationTagsEnabled = reservationTagsEnabled;
+    }
+
+    /**
+     * One resource; only changes with the catalog. Throws {@link org.springframework.security.access.AccessDeniedException}
+     * when the caller cannot see it, so a forbidden read never gets a 304; gives
+     * no tag when the catalog does not hold it, leaving "not found" to the lookup.
+     */
+    public String resource(UUID id, UserDetails userDetails) {
+        ResourceResponse resource = catalog.snapshot().get(id);
+        if (resource == null) {
+            return null;
+        }
+        permissionService.checkAccess(userDetails, resource.resourceType().id());
+        return tag("c", id, 0, userDetails, false);
+    }
+
+    /** One resource type; checked like {@link #resource}. */
+    public String resourceType(Integer id, UserDetails userDetails) {
+        permissionService.checkAccess(userDetails, id);
+        return catalog.snapshot().hasType(id) ? tag("c", id, 0, userDetails, false) : null;
+    }
+
+    /** Reservations of one resource (its history and availability); checked like {@link #resource}. */
+    public String resourceReservations(UUID resourceId, UserDetails userDetails) {
+        ResourceResponse resource = catalog.snapshot().get(resourceId);
+        if (resource == null) {
+            return null;
+        }
+        permissionService.checkAccess(userDetails, resource.resourceType().id());
+        return reservationTag("r", resourceId, reservationVersions.current(resourceId), userDetails);
+    }
+
+    /**
+     * One reservation. Whether it exists and the caller may see it is only known
+     * once it is loaded, so use this with
+     * {@code ConditionalResponses.ofLoaded}.
+     */
+    public String reservation(UUID id, UserDetails userDetails) {
+        return reservationTag("g", id, reservationVersions.currentGlobal(), userDetails);
+    }
+
+    /** The caller's own reservations. */
+    public String ownReservations(UserDetails userDetails) {
+        return reservationTag("u", null, reservationVersions.currentForUser(currentUserService.idOf(userDetails)),
+                userDetails);
+    }
+
+    /** Anything that may read the reservations of several resources or users. */
+    public String reservations(UserDetails userDetails) {
+        return reservationTag("g", null, reservationVersions.currentGlobal(), userDetails);
+    }
+
+    private String reservationTag(String scope, Object entity, long version, UserDetails userDetails) {
+        return reservationTagsEnabled ? tag(scope, entity, version, userDetails, true) : null;
+    }
+
+    // entity: ID of the one resource, type or reservation the tag is for; null for listings
+    private String tag(String scope, Object entity, long version, UserDetails userDetails, boolean perUser) {
+        // Read before anything else: a write committing meanwhile then outdates the tag
+        long catalogVersion = catalog.version();
+        if (!catalog.isReady()) {
+            return null;
+        }
+        int viewer = Arrays.hashCode(permissionService.getAllowedResourceTypeMask(userDetails));
+        if (perUser) {
+            viewer = 31 * viewer + currentUserService.idOf(userDetails).hashCode();
+        }
+        return "W/\"" + instance + "-" + scope + catalogVersion + "." + version
+                + (entity != null ? "-" + entity : "") + "-" + Integer.toHexString(viewer) + "\"";
+    }
+}
@@ -0,0 +1,40 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ReservationResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a reservation history ordered by {@code (startTime, id)}
+ * descending: the last row of the previous page. Encoded as URL-safe base64 so
+ * clients treat it as opaque.
+ */
+record HistoryCursor(LocalDateTime startTime, UUID id) {
+
+    static HistoryCursor after(ReservationResponse last) {
+        return new HistoryCursor(last.startTime(), last.id());
+    }
+
+    String encode() {
+        String raw = startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ResourceTypeRepository.RolePermission;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable role → resource type permission matrix. Each role holds a bitset
+ * (packed into {@code long} words) indexed by resource type ID; a caller's
+ * permissions are the union of the masks of its roles.
+ * <p>
+ * Masks are registered under both the bare role name and its {@code ROLE_}
+ * authority form so lookups by authority need no string manipulation.
+ */
+final class PermissionMatrix {
+
+    static final PermissionMatrix EMPTY = new PermissionMatrix(Map.of());
+
+    private static final long[] NO_TYPES = new long[0];
+
+    private final Map<String, long[]> masksByRole;
+
+    private PermissionMatrix(Map<String, long[]> masksByRole) {
+        this.masksByRole = masksByRole;
+    }
+
+    static PermissionMatrix of(List<RolePermission> permissions) {
+        Map<String, long[]> masks = new HashMap<>();
+        for (RolePermission permission : permissions) {
+            int typeId = permission.getResourceTypeId();
+            long[] mask = masks.getOrDefault(permission.getRoleName(), NO_TYPES);
+            if (mask.length <= typeId >>> 6) {
+                mask = Arrays.copyOf(mask, (typeId >>> 6) + 1);
+            }
+            mask[typeId >>> 6] |= 1L << typeId;
+            masks.put(permission.getRoleName(), mask);
+        }
+
+        Map<String, long[]> byAuthority = new HashMap<>();
+        masks.forEach((role, mask) -> {
+            byAuthority.put(role, mask);
+            byAuthority.put("ROLE_" + role, mask);
+        });
+        return new PermissionMatrix(Map.copyOf(byAuthority));
+    }
+
+    /** Allocation-free check of a single resource type against the caller's roles. */
+    boolean allows(Collection<? extends GrantedAuthority> authorities, int typeId) {
+        if (typeId < 0) {
+            return false;
+        }
+        int word = typeId >>> 6;
+        long bit = 1L << typeId;
+        for (GrantedAuthority authority : authorities) {
+            long[] mask = masksByRole.get(authority.getAuthority());
+            if (mask != null && word < mask.length && (mask[word] & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Union of the masks of the caller's roles. */
+    long[] union(Collection<? extends GrantedAuthority> authorities) {
+        long[] union = NO_TYPES;
+        for (GrantedAuthority authority : authorities) {
+            long[] mask = masksByRole.get(authority.getAuthority());
+            if (mask == null) {
+                continue;
+            }
+            if (union.length < mask.length) {
+                union = Arrays.copyOf(union, mask.length);
+            }
+            for (int i = 0; i < mask.length; i++) {
+                union[i] |= mask[i];
+            }
+        }
+        return union;
+    }
+
+    static Set<Integer> toTypeIds(long[] mask) {
+        Set<Integer> ids = new HashSet<>();
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                ids.add((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return ids;
+    }
+}
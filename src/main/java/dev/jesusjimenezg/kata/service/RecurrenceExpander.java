@@ -0,0 +1,89 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.RecurrenceRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Expands a {@link RecurrenceRule} into the start times of its occurrences.
+ * Every occurrence keeps the time of day of the first one.
+ */
+final class RecurrenceExpander {
+
+    private RecurrenceExpander() {
+    }
+
+    static List<LocalDateTime> expand(LocalDateTime first, RecurrenceRule rule, int maxOccurrences) {
+        if (rule == null || rule.frequency() == null) {
+            throw new IllegalArgumentException("Recurrence frequency is required");
+        }
+        int interval = rule.interval() != null ? rule.interval() : 1;
+        if (interval < 1) {
+            throw new IllegalArgumentException("Recurrence interval must be at least 1");
+        }
+        if ((rule.until() == null) == (rule.count() == null)) {
+            throw new IllegalArgumentException("Recurrence requires exactly one of until or count");
+        }
+        if (rule.count() != null && (rule.count() < 1 || rule.count() > maxOccurrences)) {
+            throw new IllegalArgumentException("Recurrence count must be between 1 and " + maxOccurrences);
+        }
+        if (rule.until() != null && rule.until().isBefore(first.toLocalDate())) {
+            throw new IllegalArgumentException("Recurrence until must not be before the first occurrence");
+        }
+        Set<DayOfWeek> byWeekday = rule.byWeekday() != null ? rule.byWeekday() : Set.of();
+        if (rule.frequency() != RecurrenceRule.Frequency.WEEKLY && !byWeekday.isEmpty()) {
+            throw new IllegalArgumentException("byWeekday only applies to WEEKLY recurrences");
+        }
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        LocalDate firstDate = first.toLocalDate();
+        LocalTime time = first.toLocalTime();
+
+        if (rule.frequency() == RecurrenceRule.Frequency.DAILY) {
+            LocalDate date = firstDate;
+            while (add(starts, date, time, rule, maxOccurrences)) {
+                date = date.plusDays(interval);
+            }
+            return starts;
+        }
+
+        // WEEKLY: walk every interval-th week from the week of the first occurrence,
+        // taking the requested weekdays in calendar order
+        Set<DayOfWeek> days = byWeekday.isEmpty() ? Set.of(first.getDayOfWeek()) : new TreeSet<>(byWeekday);
+        LocalDate weekStart = firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        while (true) {
+            for (DayOfWeek day : days) {
+                LocalDate date = weekStart.plusDays(day.getValue() - 1L);
+                if (date.isBefore(firstDate)) {
+                    continue;
+                }
+                if (!add(starts, date, time, rule, maxOccurrences)) {
+                    return starts;
+                }
+            }
+            weekStart = weekStart.plusWeeks(interval);
+        }
+    }
+
+    /** Adds the occurrence unless the rule has ended; returns whether it was added. */
+    private static boolean add(List<LocalDateTime> starts, LocalDate date, LocalTime time, RecurrenceRule rule,
+            int maxOccurrences) {
+        boolean ended = rule.until() != null ? date.isAfter(rule.until()) : starts.size() == rule.count();
+        if (ended) {
+            return false;
+        }
+        if (starts.size() == maxOccurrences) {
+            throw new IllegalArgumentException("A recurrence may expand to at most " + maxOccurrences + " occurrences");
+        }
+        starts.add(date.atTime(time));
+        return true;
+    }
+}
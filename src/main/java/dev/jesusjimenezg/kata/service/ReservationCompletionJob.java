@@ -0,0 +1,85 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.EndedReservation;
+import dev.jesusjimenezg.kata.repository.ReservationMaintenanceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Periodically moves ended ACTIVE reservations to COMPLETED, so the ACTIVE set
+ * (active listings, overlap checks, the exclusion constraint's index and the
+ * interval index) only holds current and future bookings.
+ * <p>
+ * Works in chunks, each in its own short transaction, walking end times
+ * forward so that a run does not re-scan what earlier chunks passed over.
+ * Chunks lock their rows with {@code SKIP LOCKED}, so several instances can
+ * run the job at the same time without blocking each other or completing a
+ * row twice. Completed rows leave the ACTIVE set, so every chunk makes
+ * progress even when it restarts at the previous chunk's last end time.
+ */
+@Component
+public class ReservationCompletionJob {
+
+    private static final LocalDateTime START_OF_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ReservationMaintenanceRepository maintenanceRepository;
+    private final ReservationIntervalIndex intervalIndex;
+    private final ReservationVersionTracker versionTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public ReservationCompletionJob(ReservationMaintenanceRepository maintenanceRepository,
+            ReservationIntervalIndex intervalIndex,
+            ReservationVersionTracker versionTracker,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reservations.completion.enabled:true}") boolean enabled,
+            @Value("${app.reservations.completion.chunk-size:500}") int chunkSize) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.intervalIndex = intervalIndex;
+        this.versionTracker = versionTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.reservations.completion.initial-delay:PT1M}",
+            fixedDelayString = "${app.reservations.completion.interval:PT5M}")
+    public void run() {
+        if (enabled) {
+            completeEnded(LocalDateTime.now());
+        }
+    }
+
+    /** Completes every reservation that ended by {@code now}; returns how many. */
+    int completeEnded(LocalDateTime now) {
+        LocalDateTime fromEndTime = START_OF_TIME;
+        int total = 0;
+        while (true) {
+            LocalDateTime chunkFrom = fromEndTime;
+            List<EndedReservation> chunk = transactionTemplate.execute(
+                    status -> maintenanceRepository.completeEnded(now, chunkFrom, chunkSize));
+            if (chunk == null || chunk.isEmpty()) {
+                return total;
+            }
+            // Committed: drop the intervals from memory like a cancellation does
+            for (EndedReservation ended : chunk) {
+                intervalIndex.remove(ended.resourceId(), ended.startTime(), ended.endTime());
+                versionTracker.bump(ended.resourceId());
+                versionTracker.bumpUser(ended.userId());
+            }
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+            fromEndTime = chunk.stream().map(EndedReservation::endTime).max(Comparator.naturalOrder()).orElseThrow();
+        }
+    }
+}
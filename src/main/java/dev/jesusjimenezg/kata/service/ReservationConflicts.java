@@ -0,0 +1,32 @@
+package dev.jesusjimenezg.kata.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+/**
+ * Recognizes violations of the {@code excl_reservation_overlap} exclusion
+ * constraints. PostgreSQL reports them with SQLSTATE 23P01
+ * ({@code exclusion_violation}), for which Hibernate does not extract a
+ * constraint name; the reservation overlap constraints are the only exclusion
+ * constraints in the schema, so the SQLSTATE is enough.
+ */
+public final class ReservationConflicts {
+
+    public static final String EXCLUSION_VIOLATION = "23P01";
+
+    public static final String OVERLAP_MESSAGE =
+            "Time slot overlaps with an existing active reservation for this resource";
+
+    private ReservationConflicts() {
+    }
+
+    public static boolean isOverlap(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ReservationExportRow;
+import dev.jesusjimenezg.kata.repository.ReservationExportFilter;
+import dev.jesusjimenezg.kata.repository.ReservationExportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Writes reservations as NDJSON or CSV while they are read, so memory use does
+ * not depend on how many rows are exported.
+ */
+@Service
+public class ReservationExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    static final String CSV_HEADER = "id,resourceId,resourceName,resourceType,userId,userEmail,startTime,endTime,"
+            + "status,notes,seriesId,cancelledBy,cancelledAt,createdAt";
+
+    private final ReservationExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReservationExportService(ReservationExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams every reservation matching the filter to {@code out}, ordered by
+     * start time. The transaction keeps the database cursor open while rows are
+     * written.
+     */
+    @Transactional(readOnly = true)
+    public void export(ReservationExportFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            exportRepository.stream(filter, row -> write(writer, format, row));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private void write(Writer writer, Format format, ReservationExportRow row) {
+        try {
+            if (format == Format.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(row));
+            } else {
+                writeCsv(writer, row);
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeCsv(Writer writer, ReservationExportRow row) throws IOException {
+        Object[] fields = { row.id(), row.resourceId(), row.resourceName(), row.resourceType(), row.userId(),
+                row.userEmail(), row.startTime(), row.endTime(), row.status(), row.notes(), row.seriesId(),
+                row.cancelledBy(), row.cancelledAt(), row.createdAt() };
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(Objects.toString(fields[i], "")));
+        }
+    }
+
+    /** Quotes a value when it contains a separator, a quote or a line break (RFC 4180). */
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,317 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ReservationInterval;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of ACTIVE reservation intervals per resource.
+ * <p>
+ * Warmed from the database once the application is ready and kept up to date
+ * write-through by {@link ReservationService} after each create/cancel commits.
+ * It answers overlap pre-checks and availability windows without a query; the
+ * {@code excl_reservation_overlap} constraint remains the final arbiter.
+ * <p>
+ * Writes made through other instances, or straight in the database, are only
+ * picked up by a full reload every {@code refresh-interval}, which bounds how
+ * long the index can show a booked slot as free. That is why it is off unless
+ * {@code app.reservations.interval-index.enabled=true}: turn it on for a single
+ * instance, or where that staleness is acceptable.
+ */
+@Component
+public class ReservationIntervalIndex {
+
+    private final ReservationRepository reservationRepository;
+    private final boolean enabled;
+    private final Map<UUID, Intervals> byResource = new ConcurrentHashMap<>();
+    private final Set<UUID> touchedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    // Sequence of the last write applied to each resource, so a refresh keeps what it did not see
+    private final Map<UUID, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile boolean ready;
+
+    public ReservationIntervalIndex(ReservationRepository reservationRepository,
+            @Value("${app.reservations.interval-index.enabled:false}") boolean enabled) {
+        this.reservationRepository = reservationRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        byResource.putAll(loadAll());
+        ready = true;
+
+        // Writes that committed while the bulk load was running are re-read per resource
+        for (UUID resourceId : touchedDuringWarmUp) {
+            reload(resourceId);
+        }
+        touchedDuringWarmUp.clear();
+    }
+
+    /**
+     * Replaces the index with the database's ACTIVE intervals. Resources written
+     * through this instance while the intervals were loading keep their entry and
+     * are re-read one by one, so no write is lost to a load that started before it.
+     */
+    @Scheduled(initialDelayString = "${app.reservations.interval-index.refresh-interval:PT1M}",
+            fixedDelayString = "${app.reservations.interval-index.refresh-interval:PT1M}")
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        long since = writes.get();
+        Map<UUID, Intervals> loaded = loadAll();
+        Set<UUID> resourceIds = new HashSet<>(byResource.keySet());
+        resourceIds.addAll(loaded.keySet());
+        List<UUID> writtenMeanwhile = new ArrayList<>();
+        for (UUID resourceId : resourceIds) {
+            byResource.compute(resourceId, (id, current) -> {
+                if (lastWrites.getOrDefault(id, 0L) > since) {
+                    writtenMeanwhile.add(id);
+                    return current;
+                }
+                return loaded.get(id);
+            });
+        }
+        writtenMeanwhile.forEach(this::reload);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns {@code false} only when the index is ready and no ACTIVE reservation
+     * of the resource overlaps {@code [start, end)}. A {@code true} answer must be
+     * confirmed against the database.
+     */
+    public boolean mayOverlap(UUID resourceId, LocalDateTime start, LocalDateTime end) {
+        if (!ready) {
+            return true;
+        }
+        return byResource.getOrDefault(resourceId, Intervals.EMPTY).overlaps(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * ACTIVE reservation intervals of the resource that overlap the window, ordered
+     * by start time. Only meaningful when {@link #isReady()}.
+     */
+    public List<ReservationInterval> findInWindow(UUID resourceId, LocalDateTime windowStart,
+            LocalDateTime windowEnd) {
+        List<ReservationInterval> result = new ArrayList<>();
+        byResource.getOrDefault(resourceId, Intervals.EMPTY)
+                .collect(resourceId, toMicros(windowStart), toMicros(windowEnd), result);
+        return result;
+    }
+
+    /** Records a committed ACTIVE reservation. Idempotent. */
+    public void add(UUID resourceId, LocalDateTime start, LocalDateTime end) {
+        if (deferredUntilReady(resourceId)) {
+            return;
+        }
+        long s = toMicros(start);
+        long e = toMicros(end);
+        byResource.compute(resourceId, (id, current) -> {
+            lastWrites.put(id, writes.incrementAndGet());
+            return (current != null ? current : Intervals.EMPTY).with(s, e);
+        });
+    }
+
+    /** Forgets a reservation that is no longer ACTIVE. Idempotent. */
+    public void remove(UUID resourceId, LocalDateTime start, LocalDateTime end) {
+        if (deferredUntilReady(resourceId)) {
+            return;
+        }
+        long s = toMicros(start);
+        long e = toMicros(end);
+        byResource.compute(resourceId, (id, current) -> {
+            lastWrites.put(id, writes.incrementAndGet());
+            if (current == null) {
+                return null;
+            }
+            Intervals updated = current.without(s, e);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    /** Re-reads the ACTIVE intervals of one resource from the database. */
+    public void reload(UUID resourceId) {
+        byResource.compute(resourceId, (id, current) -> {
+            Intervals loaded = Intervals.of(reservationRepository.findActiveIntervalsByResourceId(id));
+            return loaded.isEmpty() ? null : loaded;
+        });
+    }
+
+    private Map<UUID, Intervals> loadAll() {
+        Map<UUID, Intervals> loaded = new HashMap<>();
+        reservationRepository.findActiveIntervals().stream()
+                .collect(Collectors.groupingBy(ReservationInterval::resourceId))
+                .forEach((resourceId, intervals) -> loaded.put(resourceId, Intervals.of(intervals)));
+        return loaded;
+    }
+
+    private boolean deferredUntilReady(UUID resourceId) {
+        if (!enabled) {
+            return true;
+        }
+        if (ready) {
+            return false;
+        }
+        touchedDuringWarmUp.add(resourceId);
+        // Re-check: if warm-up finished meanwhile, apply the write directly
+        return !ready;
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Immutable interval set of one resource, sorted by start, with a running
+     * maximum of end times. This is the flattened form of an augmented interval
+     * tree: "does anything overlap [s, e)" is one binary search on starts plus a
+     * lookup in the max-end prefix, and it stays correct even if intervals
+     * overlap transiently. Updates copy the arrays, which is cheap for the
+     * handful of ACTIVE reservations a resource holds.
+     */
+    static final class Intervals {
+
+        static final Intervals EMPTY = new Intervals(new long[0], new long[0]);
+
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private Intervals(long[] starts, long[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        static Intervals of(List<ReservationInterval> intervals) {
+            List<ReservationInterval> sorted = intervals.stream()
+                    .sorted(Comparator.comparing(ReservationInterval::startTime))
+                    .toList();
+            long[] starts = new long[sorted.size()];
+            long[] ends = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                starts[i] = toMicros(sorted.get(i).startTime());
+                ends[i] = toMicros(sorted.get(i).endTime());
+            }
+            return new Intervals(starts, ends);
+        }
+
+        boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        boolean overlaps(long start, long end) {
+            int candidates = lowerBound(starts, end);
+            return candidates > 0 && maxEnds[candidates - 1] > start;
+        }
+
+        void collect(UUID resourceId, long start, long end, List<ReservationInterval> out) {
+            int candidates = lowerBound(starts, end);
+            // maxEnds is non-decreasing: skip every interval that ends before the window
+            for (int i = upperBound(maxEnds, start, candidates); i < candidates; i++) {
+                if (ends[i] > start) {
+                    out.add(new ReservationInterval(resourceId, fromMicros(starts[i]), fromMicros(ends[i])));
+                }
+            }
+        }
+
+        Intervals with(long start, long end) {
+            int position = lowerBound(starts, start);
+            for (int i = position; i < starts.length && starts[i] == start; i++) {
+                if (ends[i] == end) {
+                    return this;
+                }
+            }
+            long[] newStarts = new long[starts.length + 1];
+            long[] newEnds = new long[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, position);
+            System.arraycopy(ends, 0, newEnds, 0, position);
+            newStarts[position] = start;
+            newEnds[position] = end;
+            System.arraycopy(starts, position, newStarts, position + 1, starts.length - position);
+            System.arraycopy(ends, position, newEnds, position + 1, ends.length - position);
+            return new Intervals(newStarts, newEnds);
+        }
+
+        Intervals without(long start, long end) {
+            for (int i = lowerBound(starts, start); i < starts.length && starts[i] == start; i++) {
+                if (ends[i] == end) {
+                    long[] newStarts = new long[starts.length - 1];
+                    long[] newEnds = new long[ends.length - 1];
+                    System.arraycopy(starts, 0, newStarts, 0, i);
+                    System.arraycopy(ends, 0, newEnds, 0, i);
+                    System.arraycopy(starts, i + 1, newStarts, i, starts.length - i - 1);
+                    System.arraycopy(ends, i + 1, newEnds, i, ends.length - i - 1);
+                    return new Intervals(newStarts, newEnds);
+                }
+            }
+            return this;
+        }
+
+        /** First index in {@code values} holding a value {@code >= key}. */
+        private static int lowerBound(long[] values, long key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** First index below {@code limit} holding a value {@code > key}. */
+        private static int upperBound(long[] values, long key, int limit) {
+            int low = 0;
+            int high = limit;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
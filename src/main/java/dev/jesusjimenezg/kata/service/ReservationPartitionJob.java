@@ -0,0 +1,69 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ReservationPartitionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code reservation} ahead of the bookings:
+ * creates the partitions of the current and the next {@code months-ahead}
+ * months, and, when {@code archive-after-months} is positive, detaches the
+ * partitions of months that ended that long ago into the
+ * {@code reservation_archive} schema. Archived reservations no longer appear
+ * in history or exports.
+ * <p>
+ * Bookings beyond the created months land in the default partition and are
+ * moved into their month's partition once it is created.
+ */
+@Component
+public class ReservationPartitionJob {
+
+    private final ReservationPartitionRepository partitionRepository;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    public ReservationPartitionJob(ReservationPartitionRepository partitionRepository,
+            @Value("${app.reservations.partitions.enabled:true}") boolean enabled,
+            @Value("${app.reservations.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${app.reservations.partitions.archive-after-months:0}") int archiveAfterMonths) {
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @Scheduled(initialDelayString = "${app.reservations.partitions.initial-delay:PT1M}",
+            fixedDelayString = "${app.reservations.partitions.interval:PT24H}")
+    public void run() {
+        if (enabled) {
+            LocalDate today = LocalDate.now();
+            createAhead(today);
+            archiveOld(today);
+        }
+    }
+
+    /** Creates the missing partitions up to {@code monthsAhead} months after {@code today}'s; returns how many. */
+    int createAhead(LocalDate today) {
+        LocalDate month = today.withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            if (partitionRepository.createMonth(month.plusMonths(i))) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    /** Archives the partitions of months ended {@code archiveAfterMonths} months ago or earlier. */
+    List<String> archiveOld(LocalDate today) {
+        if (archiveAfterMonths <= 0) {
+            return List.of();
+        }
+        return partitionRepository.archiveBefore(today.withDayOfMonth(1).minusMonths(archiveAfterMonths));
+    }
+}
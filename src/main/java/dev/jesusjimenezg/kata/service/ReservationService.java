@@ -1,40 +1,106 @@
 package dev.jesusjimenezg.kata.service;
 
+import dev.jesusjimenezg.kata.dto.AutoAssignReservationRequest;
+import dev.jesusjimenezg.kata.dto.AvailabilityMatrix;
 import dev.jesusjimenezg.kata.dto.AvailabilitySlot;
+import dev.jesusjimenezg.kata.dto.BatchItemResult;
+import dev.jesusjimenezg.kata.dto.BatchReservationRequest;
+import dev.jesusjimenezg.kata.dto.BatchReservationResponse;
+import dev.jesusjimenezg.kata.dto.CursorPage;
+import dev.jesusjimenezg.kata.dto.RecurringReservationRequest;
+import dev.jesusjimenezg.kata.dto.RecurringReservationResponse;
 import dev.jesusjimenezg.kata.dto.ReservationRequest;
 import dev.jesusjimenezg.kata.dto.ReservationResponse;
+import dev.jesusjimenezg.kata.dto.ResourceAvailability;
+import dev.jesusjimenezg.kata.dto.SeriesCancellationResponse;
 import dev.jesusjimenezg.kata.model.AppUser;
 import dev.jesusjimenezg.kata.model.Reservation;
 import dev.jesusjimenezg.kata.model.Resource;
 import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.repository.ReservationInterval;
 import dev.jesusjimenezg.kata.repository.ReservationRepository;
 import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ReservationService {
 
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /** Upper bound on resources × buckets of an availability matrix. */
+    private static final int MAX_MATRIX_CELLS = 1 << 20;
+
+    /**
+     * Bookings may not start in the past. Ended reservations are completed (see
+     * {@link ReservationCompletionJob}) and so no longer block their slot.
+     */
+    private static final String PAST_START_MESSAGE = "Start time must not be in the past";
+
+    private static final String TOO_LONG_MESSAGE =
+            "A reservation may last at most " + Reservation.MAX_LENGTH.toDays() + " days";
+
+    /** How long the fallback pass of an auto-assign waits for a contended resource. */
+    private static final Duration CONTENDED_WAIT = Duration.ofMillis(100);
+
     private final ReservationRepository reservationRepository;
     private final ResourceRepository resourceRepository;
     private final AppUserRepository appUserRepository;
     private final ResourcePermissionService permissionService;
+    private final CurrentUserService currentUserService;
+    private final ReservationIntervalIndex intervalIndex;
+    private final ResourceBookingLock bookingLock;
+    private final ReservationVersionTracker versionTracker;
+    private final AvailabilityCache availabilityCache;
+    private final int maxBatchSize;
+    private final int maxOccurrences;
 
     public ReservationService(ReservationRepository reservationRepository,
             ResourceRepository resourceRepository,
             AppUserRepository appUserRepository,
-            ResourcePermissionService permissionService) {
+            ResourcePermissionService permissionService,
+            CurrentUserService currentUserService,
+            ReservationIntervalIndex intervalIndex,
+            ResourceBookingLock bookingLock,
+            ReservationVersionTracker versionTracker,
+            AvailabilityCache availabilityCache,
+            @Value("${app.reservations.batch.max-size:100}") int maxBatchSize,
+            @Value("${app.reservations.recurrence.max-occurrences:366}") int maxOccurrences) {
         this.reservationRepository = reservationRepository;
         this.resourceRepository = resourceRepository;
         this.appUserRepository = appUserRepository;
         this.permissionService = permissionService;
+        this.currentUserService = currentUserService;
+        this.intervalIndex = intervalIndex;
+        this.bookingLock = bookingLock;
+        this.versionTracker = versionTracker;
+        this.availabilityCache = availabilityCache;
+        this.maxBatchSize = maxBatchSize;
+        this.maxOccurrences = maxOccurrences;
     }
 
     @Transactional
@@ -45,6 +111,8 @@ public class ReservationService {
         if (!request.endTime().isAfter(request.startTime())) {
             throw new IllegalArgumentException("End time must be after start time");
         }
+        checkNotInPast(request.startTime());
+        checkLength(request.startTime(), request.endTime());
 
         Resource resource = resourceRepository.findById(request.resourceId())
                 .orElseThrow(() -> new IllegalArgumentException("Resource not found: " + request.resourceId()));
@@ -56,71 +124,222 @@ public class ReservationService {
         // Role-based permission check for the resource type
         permissionService.checkAccess(userDetails, resource.getResourceType().getId());
 
-        // Check for overlapping active reservations
-        if (reservationRepository.existsOverlapping(request.resourceId(), request.startTime(), request.endTime())) {
-            throw new IllegalStateException(
-                    "Time slot overlaps with an existing active reservation for this resource");
+        Reservation reservation = newReservation(resource,
+                appUserRepository.getReferenceById(currentUserService.idOf(userDetails)), request, null);
+
+        // Writers of this resource are serialized. The exclusion constraints only
+        // cover one monthly partition each (see V9), so a reservation crossing a
+        // month boundary is checked against the database here, under the lock
+        bookingLock.lock(resource.getId());
+        if (reservationRepository.existsOverlapping(resource.getId(), request.startTime(), request.endTime())) {
+            throw new IllegalStateException(ReservationConflicts.OVERLAP_MESSAGE);
         }
+        Reservation saved = insert(reservation);
+        publishAdded(List.of(saved));
 
-        AppUser user = appUserRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        // The user is an uninitialized reference; take the email from the principal
+        return toResponse(saved, userDetails.getUsername());
+    }
 
-        Reservation reservation = new Reservation();
-        reservation.setResource(resource);
-        reservation.setUser(user);
-        reservation.setStartTime(request.startTime());
-        reservation.setEndTime(request.endTime());
-        reservation.setNotes(request.notes());
+    /**
+     * Reserves any free active resource of a type for the window. Candidates come
+     * from the interval index when it is ready (only resources it reports free, in
+     * name order), otherwise every active resource of the type. Each candidate is
+     * checked against the database before it is locked, so resources booked
+     * through other instances are passed over without being locked. A candidate
+     * that another transaction is booking right now is passed over too, so
+     * concurrent callers spread across resources instead of queueing on the same
+     * one, and is only retried, with a short wait, once the uncontended candidates
+     * are used up. Under the candidate's booking lock the choice is confirmed
+     * against the database before the insert, so a failed insert never aborts
+     * the transaction mid-search; a candidate booked between the two checks stays
+     * locked until the transaction ends.
+     */
+    @Transactional
+    public ReservationResponse createAnyOfType(AutoAssignReservationRequest request, UserDetails userDetails) {
+        if (request.resourceTypeId() == null) {
+            throw new IllegalArgumentException("Resource type ID is required");
+        }
+        if (request.startTime() == null || request.endTime() == null) {
+            throw new IllegalArgumentException("Start time and end time are required");
+        }
+        if (!request.endTime().isAfter(request.startTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        checkNotInPast(request.startTime());
+        checkLength(request.startTime(), request.endTime());
 
-        return toResponse(reservationRepository.save(reservation));
+        permissionService.checkAccess(userDetails, request.resourceTypeId());
+
+        LocalDateTime start = request.startTime();
+        LocalDateTime end = request.endTime();
+        List<Resource> candidates = resourceRepository
+                .findByActiveTrueAndResourceTypeIdIn(List.of(request.resourceTypeId())).stream()
+                .filter(r -> !intervalIndex.isReady() || !intervalIndex.mayOverlap(r.getId(), start, end))
+                .sorted(Comparator.comparing(Resource::getName))
+                .toList();
+
+        List<Resource> contended = new ArrayList<>();
+        for (Resource candidate : candidates) {
+            if (!isFree(candidate.getId(), start, end)) {
+                continue;
+            }
+            if (!bookingLock.tryLock(candidate.getId(), Duration.ZERO)) {
+                contended.add(candidate);
+            } else if (isFree(candidate.getId(), start, end)) {
+                return bookAssigned(candidate, request, userDetails);
+            }
+        }
+        for (Resource candidate : contended) {
+            if (isFree(candidate.getId(), start, end)
+                    && bookingLock.tryLock(candidate.getId(), CONTENDED_WAIT)
+                    && isFree(candidate.getId(), start, end)) {
+                return bookAssigned(candidate, request, userDetails);
+            }
+        }
+        throw new IllegalStateException("No resource of this type is free for the requested time slot");
     }
 
+    /**
+     * Creates several reservations at once. Resources and permissions are resolved
+     * once, all resources are locked together up front (see
+     * {@link ResourceBookingLock#lockAll}), and the items of each resource are
+     * checked against the database and against each other in one sorted sweep
+     * before a single batched insert.
+     */
+    @Transactional
+    public BatchReservationResponse createBatch(BatchReservationRequest request, UserDetails userDetails) {
+        if (request == null || request.items() == null || request.items().isEmpty()) {
+            throw new IllegalArgumentException("At least one reservation is required");
+        }
+        List<ReservationRequest> items = request.items();
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch accepts at most " + maxBatchSize + " reservations");
+        }
+
+        return book(items, request.mode() != BatchReservationRequest.Mode.BEST_EFFORT, null, userDetails);
+    }
+
+    /**
+     * Creates every occurrence of a recurring reservation, or none of them. The
+     * series is expanded here and booked like an all-or-nothing batch, so the
+     * whole series costs one overlap query and one batched insert.
+     */
+    @Transactional
+    public RecurringReservationResponse createRecurring(RecurringReservationRequest request,
+            UserDetails userDetails) {
+        if (request.startTime() == null || request.endTime() == null) {
+            throw new IllegalArgumentException("Start time and end time are required");
+        }
+        if (!request.endTime().isAfter(request.startTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+
+        Duration duration = Duration.between(request.startTime(), request.endTime());
+        List<ReservationRequest> occurrences = RecurrenceExpander
+                .expand(request.startTime(), request.recurrence(), maxOccurrences).stream()
+                .map(start -> new ReservationRequest(request.resourceId(), start, start.plus(duration),
+                        request.notes()))
+                .toList();
+
+        UUID seriesId = UUID.randomUUID();
+        BatchReservationResponse booked = book(occurrences, true, seriesId, userDetails);
+        if (booked.failed() > 0) {
+            throw occurrenceFailure(booked, occurrences);
+        }
+        return new RecurringReservationResponse(seriesId, booked.results().stream()
+                .map(BatchItemResult::reservation)
+                .toList());
+    }
+
+    /**
+     * Cancels every ACTIVE occurrence of a series with a single UPDATE. Only the
+     * creator of the series or an ADMIN can cancel it.
+     */
+    @Transactional
+    public SeriesCancellationResponse cancelSeries(UUID seriesId, UserDetails userDetails) {
+        Reservation occurrence = reservationRepository.findFirstBySeriesId(seriesId)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation series not found: " + seriesId));
+
+        UUID currentUserId = currentUserService.idOf(userDetails);
+        if (!occurrence.getUser().getId().equals(currentUserId) && !isAdmin(userDetails)) {
+            throw new SecurityException("Only the series creator or an admin can cancel this series");
+        }
+
+        List<ReservationInterval> active = reservationRepository.findActiveIntervalsBySeriesId(seriesId);
+        int cancelled = reservationRepository.cancelActiveBySeriesId(seriesId,
+                appUserRepository.getReferenceById(currentUserId), LocalDateTime.now());
+        publishRemoved(active, occurrence.getUser().getId());
+        return new SeriesCancellationResponse(seriesId, cancelled);
+    }
+
+    /**
+     * One statement on success: the reservation is projected straight into its
+     * response, restricted to types the viewer can access. Only when nothing comes
+     * back is the reservation looked up again, to tell "not found" from "forbidden".
+     */
     @Transactional(readOnly = true)
     public ReservationResponse findById(UUID id, UserDetails userDetails) {
-        Reservation reservation = reservationRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Reservation not found: " + id));
-        permissionService.checkAccess(userDetails, reservation.getResource().getResourceType().getId());
-        return toResponse(reservation);
+        return reservationRepository.findResponseVisibleTo(id, currentUserService.idOf(userDetails))
+                .orElseThrow(() -> reservationRepository.existsById(id)
+                        ? new AccessDeniedException("You do not have permission to access resources of this type")
+                        : new IllegalArgumentException("Reservation not found: " + id));
     }
 
     @Transactional(readOnly = true)
     public List<ReservationResponse> findActiveByUser(UserDetails userDetails) {
-        AppUser user = appUserRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
-        return reservationRepository.findByUserIdAndStatusAndResourceTypeIdIn(user.getId(), "ACTIVE", allowed)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return reservationRepository.findOwnByStatus(currentUserService.idOf(userDetails), "ACTIVE");
     }
 
     @Transactional(readOnly = true)
     public List<ReservationResponse> findAllActive(UserDetails userDetails) {
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
-        return reservationRepository.findByStatusAndResourceTypeIdIn("ACTIVE", allowed).stream()
-                .map(this::toResponse)
-                .toList();
+        return reservationRepository.findByStatusVisibleTo("ACTIVE", currentUserService.idOf(userDetails));
     }
 
+    /**
+     * One page of a resource's history, most recent first. Pages are keyed on the
+     * last row's {@code (startTime, id)} rather than an offset, so each page costs
+     * the same index range scan however much history precedes it. Access is
+     * enforced by the query; the resource itself is only read when the page comes
+     * back empty, to report a missing resource or a forbidden type.
+     */
     @Transactional(readOnly = true)
-    public List<ReservationResponse> findHistoryByResource(UUID resourceId, UserDetails userDetails) {
-        Resource resource = resourceRepository.findById(resourceId)
-                .orElseThrow(() -> new IllegalArgumentException("Resource not found: " + resourceId));
-        permissionService.checkAccess(userDetails, resource.getResourceType().getId());
-        return reservationRepository.findByResourceIdOrderByStartTimeDesc(resourceId).stream()
-                .map(this::toResponse)
-                .toList();
+    public CursorPage<ReservationResponse> findHistoryByResource(UUID resourceId, String cursor, int size,
+            UserDetails userDetails) {
+        checkPageSize(size);
+        UUID viewerId = currentUserService.idOf(userDetails);
+        // One extra row tells whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<ReservationResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reservationRepository.findResourceHistory(resourceId, viewerId, limit);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = reservationRepository.findResourceHistoryAfter(resourceId, viewerId, after.startTime(),
+                    after.id(), limit);
+        }
+        if (rows.isEmpty()) {
+            Resource resource = resourceRepository.findById(resourceId)
+                    .orElseThrow(() -> new IllegalArgumentException("Resource not found: " + resourceId));
+            permissionService.checkAccess(userDetails, resource.getResourceType().getId());
+        }
+        return toPage(rows, size);
     }
 
+    /** One page of the caller's own history; see {@link #findHistoryByResource}. */
     @Transactional(readOnly = true)
-    public List<ReservationResponse> findHistoryByUser(UserDetails userDetails) {
-        AppUser user = appUserRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
-        return reservationRepository.findByUserIdAndResourceTypeIdInOrderByStartTimeDesc(user.getId(), allowed)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    public CursorPage<ReservationResponse> findHistoryByUser(String cursor, int size, UserDetails userDetails) {
+        checkPageSize(size);
+        UUID userId = currentUserService.idOf(userDetails);
+        Limit limit = Limit.of(size + 1);
+        List<ReservationResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reservationRepository.findOwnHistory(userId, limit);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rows = reservationRepository.findOwnHistoryAfter(userId, after.startTime(), after.id(), limit);
+        }
+        return toPage(rows, size);
     }
 
     @Transactional
@@ -132,29 +351,30 @@ public class ReservationService {
             throw new IllegalStateException("Only active reservations can be cancelled");
         }
 
-        AppUser currentUser = appUserRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        UUID currentUserId = currentUserService.idOf(userDetails);
 
         // Only the creator or an ADMIN can cancel
-        boolean isOwner = reservation.getUser().getId().equals(currentUser.getId());
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-
-        if (!isOwner && !isAdmin) {
+        boolean isOwner = reservation.getUser().getId().equals(currentUserId);
+        if (!isOwner && !isAdmin(userDetails)) {
             throw new SecurityException("Only the reservation creator or an admin can cancel this reservation");
         }
 
         reservation.setStatus("CANCELLED");
-        reservation.setCancelledBy(currentUser);
+        reservation.setCancelledBy(appUserRepository.getReferenceById(currentUserId));
         reservation.setCancelledAt(LocalDateTime.now());
         reservation.setUpdatedAt(LocalDateTime.now());
 
-        return toResponse(reservationRepository.save(reservation));
+        Reservation saved = reservationRepository.save(reservation);
+        publishRemoved(List.of(
+                new ReservationInterval(saved.getResource().getId(), saved.getStartTime(), saved.getEndTime())),
+                saved.getUser().getId());
+        return toResponse(saved);
     }
 
     /**
      * Returns availability slots for a resource within a time window.
-     * Splits the window into available/reserved intervals.
+     * Splits the window into available/reserved intervals. Time already elapsed
+     * is never available, since bookings may not start in the past.
      */
     @Transactional(readOnly = true)
     public List<AvailabilitySlot> getAvailability(UUID resourceId, LocalDateTime windowStart,
@@ -167,41 +387,516 @@ public class ReservationService {
             throw new IllegalArgumentException("Window end must be after window start");
         }
 
-        List<Reservation> active = reservationRepository.findActiveInWindow(resourceId, windowStart, windowEnd);
-        List<AvailabilitySlot> slots = new ArrayList<>();
+        // Cached slots do not depend on the time of the request; the elapsed part is closed afterwards
+        return closeElapsed(availabilityCache.get(resourceId, windowStart, windowEnd,
+                () -> computeSlots(resourceId, windowStart, windowEnd)), LocalDateTime.now());
+    }
+
+    /**
+     * Availability of several resources over the same window: either the given
+     * resources or every active resource of a type. Permissions are evaluated
+     * once, the reservations of all resources are read together (from the
+     * interval index, or with one query ordered by resource and start), and the
+     * slots are built in a single pass over them. Requested resources whose type
+     * the caller cannot access are left out. Elapsed time is never available, as
+     * in {@link #getAvailability}.
+     */
+    @Transactional(readOnly = true)
+    public List<ResourceAvailability> getAvailabilityForResources(List<UUID> resourceIds, Integer resourceTypeId,
+            LocalDateTime windowStart, LocalDateTime windowEnd, UserDetails userDetails) {
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("Window end must be after window start");
+        }
+        List<Resource> resources = resolveResources(resourceIds, resourceTypeId, userDetails);
+        if (resources.isEmpty()) {
+            return List.of();
+        }
+        List<ReservationInterval> active = findActiveIntervals(resources, windowStart, windowEnd);
 
+        // Intervals arrive grouped by resource and ordered by start within each group
+        Map<UUID, List<AvailabilitySlot>> slots = new HashMap<>();
+        UUID current = null;
         LocalDateTime cursor = windowStart;
+        for (ReservationInterval r : active) {
+            if (!r.resourceId().equals(current)) {
+                if (current != null) {
+                    appendTrailingGap(slots.get(current), cursor, windowEnd);
+                }
+                current = r.resourceId();
+                cursor = windowStart;
+                slots.put(current, new ArrayList<>());
+            }
+            cursor = appendReserved(slots.get(current), cursor, r, windowStart, windowEnd);
+        }
+        if (current != null) {
+            appendTrailingGap(slots.get(current), cursor, windowEnd);
+        }
 
-        for (Reservation r : active) {
-            LocalDateTime reservationStart = r.getStartTime().isBefore(windowStart) ? windowStart : r.getStartTime();
-            LocalDateTime reservationEnd = r.getEndTime().isAfter(windowEnd) ? windowEnd : r.getEndTime();
+        List<AvailabilitySlot> free = List.of(new AvailabilitySlot(windowStart, windowEnd, true));
+        LocalDateTime now = LocalDateTime.now();
+        return resources.stream()
+                .map(resource -> new ResourceAvailability(resource.getId(), resource.getName(),
+                        closeElapsed(slots.getOrDefault(resource.getId(), free), now)))
+                .toList();
+    }
 
-            // Free gap before this reservation
-            if (cursor.isBefore(reservationStart)) {
-                slots.add(new AvailabilitySlot(cursor, reservationStart, true));
+    /**
+     * Returns the availability of several resources (selected as in
+     * {@link #getAvailabilityForResources}) as an occupancy bitmap of fixed-size
+     * buckets. Bit {@code row * bucketCount + bucket} is set when any ACTIVE
+     * reservation of the resource in that row overlaps the bucket, or when the
+     * bucket has already ended (it can no longer be booked); bits are packed
+     * least significant first. The bitmap is filled straight from the interval
+     * list with range sets, without building any slot objects.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityMatrix getAvailabilityMatrix(List<UUID> resourceIds, Integer resourceTypeId,
+            LocalDateTime windowStart, LocalDateTime windowEnd, int bucketMinutes, UserDetails userDetails) {
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("Window end must be after window start");
+        }
+        if (bucketMinutes < 1 || bucketMinutes > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Bucket size must be between 1 and " + MINUTES_PER_DAY + " minutes");
+        }
+        long bucketSeconds = bucketMinutes * 60L;
+        long windowSeconds = Duration.between(windowStart, windowEnd).toSeconds();
+        long bucketCount = (windowSeconds + bucketSeconds - 1) / bucketSeconds;
+        // Checked on its own first: with no resources the product below is 0 whatever the bucket count
+        if (bucketCount > MAX_MATRIX_CELLS) {
+            throw new IllegalArgumentException("An availability matrix may have at most " + MAX_MATRIX_CELLS
+                    + " buckets; use a larger bucket or a shorter window");
+        }
+
+        List<Resource> resources = resolveResources(resourceIds, resourceTypeId, userDetails);
+        if (bucketCount * resources.size() > MAX_MATRIX_CELLS) {
+            throw new IllegalArgumentException("An availability matrix may have at most " + MAX_MATRIX_CELLS
+                    + " cells; use a larger bucket or a shorter window");
+        }
+        int buckets = (int) bucketCount;
+
+        Map<UUID, Integer> rows = new HashMap<>();
+        for (int i = 0; i < resources.size(); i++) {
+            rows.put(resources.get(i).getId(), i);
+        }
+        BitSet occupied = new BitSet(buckets * resources.size());
+        // Buckets that have fully elapsed can no longer be booked
+        int elapsed = Math.clamp(Duration.between(windowStart, LocalDateTime.now()).toSeconds() / bucketSeconds,
+                0, buckets);
+        for (int row = 0; row < resources.size(); row++) {
+            occupied.set(row * buckets, row * buckets + elapsed);
+        }
+        if (!resources.isEmpty()) {
+            for (ReservationInterval r : findActiveIntervals(resources, windowStart, windowEnd)) {
+                long startOffset = Math.max(0, Duration.between(windowStart, r.startTime()).toSeconds());
+                long endOffset = Math.min(windowSeconds, Duration.between(windowStart, r.endTime()).toSeconds());
+                int rowStart = rows.get(r.resourceId()) * buckets;
+                occupied.set(rowStart + (int) (startOffset / bucketSeconds),
+                        rowStart + (int) ((endOffset + bucketSeconds - 1) / bucketSeconds));
             }
+        }
 
-            // Reserved slot
-            slots.add(new AvailabilitySlot(reservationStart, reservationEnd, false));
+        // toByteArray drops trailing zero bytes; pad so the length always matches the grid
+        byte[] bitmap = Arrays.copyOf(occupied.toByteArray(), (buckets * resources.size() + 7) / 8);
+        return new AvailabilityMatrix(windowStart, windowEnd, bucketMinutes, buckets,
+                resources.stream().map(Resource::getId).toList(),
+                resources.stream().map(Resource::getName).toList(),
+                Base64.getEncoder().encodeToString(bitmap));
+    }
 
-            cursor = reservationEnd;
+    /**
+     * Resolves either the given resources, leaving out those whose type the caller
+     * cannot access, or every active resource of a type ordered by name.
+     */
+    private List<Resource> resolveResources(List<UUID> resourceIds, Integer resourceTypeId,
+            UserDetails userDetails) {
+        boolean byIds = resourceIds != null && !resourceIds.isEmpty();
+        if (byIds == (resourceTypeId != null)) {
+            throw new IllegalArgumentException("Provide either resource IDs or a resource type ID");
         }
 
-        // Trailing free gap
+        List<Resource> resources;
+        if (byIds) {
+            List<UUID> distinctIds = resourceIds.stream().distinct().toList();
+            Map<UUID, Resource> found = resourceRepository.findAllById(distinctIds).stream()
+                    .collect(Collectors.toMap(Resource::getId, Function.identity()));
+            Set<Integer> allowedTypeIds = permissionService.getAllowedResourceTypeIds(userDetails);
+            resources = new ArrayList<>();
+            for (UUID id : distinctIds) {
+                Resource resource = found.get(id);
+                if (resource == null) {
+                    throw new IllegalArgumentException("Resource not found: " + id);
+                }
+                if (allowedTypeIds.contains(resource.getResourceType().getId())) {
+                    resources.add(resource);
+                }
+            }
+        } else {
+            permissionService.checkAccess(userDetails, resourceTypeId);
+            resources = resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(resourceTypeId)).stream()
+                    .sorted(Comparator.comparing(Resource::getName))
+                    .toList();
+        }
+        return resources;
+    }
+
+    /**
+     * ACTIVE intervals of the resources overlapping the window, grouped by resource
+     * and ordered by start within each group: from the interval index, or with one
+     * query for all of them.
+     */
+    private List<ReservationInterval> findActiveIntervals(List<Resource> resources, LocalDateTime windowStart,
+            LocalDateTime windowEnd) {
+        List<ReservationInterval> active;
+        if (intervalIndex.isReady()) {
+            active = new ArrayList<>();
+            for (Resource resource : resources) {
+                active.addAll(intervalIndex.findInWindow(resource.getId(), windowStart, windowEnd));
+            }
+        } else {
+            active = reservationRepository.findActiveIntervalsInWindowForResources(
+                    resources.stream().map(Resource::getId).toList(), windowStart, windowEnd);
+        }
+        return active;
+    }
+
+    private List<AvailabilitySlot> computeSlots(UUID resourceId, LocalDateTime windowStart,
+            LocalDateTime windowEnd) {
+        List<ReservationInterval> active = intervalIndex.isReady()
+                ? intervalIndex.findInWindow(resourceId, windowStart, windowEnd)
+                : reservationRepository.findActiveIntervalsInWindow(resourceId, windowStart, windowEnd);
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        LocalDateTime cursor = windowStart;
+        for (ReservationInterval r : active) {
+            cursor = appendReserved(slots, cursor, r, windowStart, windowEnd);
+        }
+        appendTrailingGap(slots, cursor, windowEnd);
+        return slots;
+    }
+
+    /**
+     * Appends the free gap before a reservation (if any) and the reservation
+     * itself, clipped to the window. Returns the new cursor.
+     */
+    private static LocalDateTime appendReserved(List<AvailabilitySlot> slots, LocalDateTime cursor,
+            ReservationInterval r, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        LocalDateTime reservationStart = r.startTime().isBefore(windowStart) ? windowStart : r.startTime();
+        LocalDateTime reservationEnd = r.endTime().isAfter(windowEnd) ? windowEnd : r.endTime();
+
+        // Free gap before this reservation
+        if (cursor.isBefore(reservationStart)) {
+            slots.add(new AvailabilitySlot(cursor, reservationStart, true));
+        }
+
+        // Reserved slot
+        slots.add(new AvailabilitySlot(reservationStart, reservationEnd, false));
+
+        return reservationEnd;
+    }
+
+    /**
+     * Marks what lies before {@code now} as unavailable, splitting the free slot
+     * that {@code now} falls into.
+     */
+    static List<AvailabilitySlot> closeElapsed(List<AvailabilitySlot> slots, LocalDateTime now) {
+        if (slots.isEmpty() || !slots.get(0).start().isBefore(now)) {
+            return slots;
+        }
+        List<AvailabilitySlot> result = new ArrayList<>(slots.size() + 1);
+        for (AvailabilitySlot slot : slots) {
+            if (!slot.available() || !slot.start().isBefore(now)) {
+                result.add(slot);
+            } else if (!slot.end().isAfter(now)) {
+                result.add(new AvailabilitySlot(slot.start(), slot.end(), false));
+            } else {
+                result.add(new AvailabilitySlot(slot.start(), now, false));
+                result.add(new AvailabilitySlot(now, slot.end(), true));
+            }
+        }
+        return result;
+    }
+
+    private static void appendTrailingGap(List<AvailabilitySlot> slots, LocalDateTime cursor,
+            LocalDateTime windowEnd) {
         if (cursor.isBefore(windowEnd)) {
             slots.add(new AvailabilitySlot(cursor, windowEnd, true));
         }
+    }
 
-        return slots;
+    /**
+     * Shared path of batch and recurring creation: validates every item, sweeps
+     * the items of each locked resource and inserts the accepted ones, all of them
+     * tagged with {@code seriesId} when given.
+     */
+    private BatchReservationResponse book(List<ReservationRequest> items, boolean allOrNothing, UUID seriesId,
+            UserDetails userDetails) {
+        Map<UUID, Resource> resources = resourceRepository.findAllById(items.stream()
+                .filter(Objects::nonNull)
+                .map(ReservationRequest::resourceId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList())
+                .stream()
+                .collect(Collectors.toMap(Resource::getId, Function.identity()));
+
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        SortedMap<UUID, List<Integer>> byResource = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            results[i] = validateBatchItem(i, items.get(i), resources, userDetails);
+            if (results[i] == null) {
+                byResource.computeIfAbsent(items.get(i).resourceId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<Integer> accepted = new ArrayList<>();
+        if (!byResource.isEmpty()) {
+            bookingLock.lockAll(byResource.keySet());
+        }
+        byResource.forEach((resourceId, indexes) ->
+                sweepBatchItems(resourceId, indexes, items, results, accepted));
+
+        boolean rejected = allOrNothing && accepted.size() < items.size();
+        if (rejected) {
+            for (int i : accepted) {
+                results[i] = new BatchItemResult(i, HttpStatus.FAILED_DEPENDENCY.value(), null,
+                        "Not created because another item of the batch failed");
+            }
+        } else if (!accepted.isEmpty()) {
+            AppUser user = appUserRepository.getReferenceById(currentUserService.idOf(userDetails));
+            List<Reservation> saved = insertAll(accepted.stream()
+                    .map(i -> newReservation(resources.get(items.get(i).resourceId()), user, items.get(i),
+                            seriesId))
+                    .toList());
+            for (int k = 0; k < accepted.size(); k++) {
+                int i = accepted.get(k);
+                results[i] = new BatchItemResult(i, HttpStatus.CREATED.value(),
+                        toResponse(saved.get(k), userDetails.getUsername()), null);
+            }
+            publishAdded(saved);
+        }
+
+        int created = rejected ? 0 : accepted.size();
+        return new BatchReservationResponse(created, items.size() - created, List.of(results));
+    }
+
+    /**
+     * Checks a batch item on its own, returning its failure or {@code null} when
+     * it may be created.
+     */
+    private BatchItemResult validateBatchItem(int index, ReservationRequest item, Map<UUID, Resource> resources,
+            UserDetails userDetails) {
+        if (item == null || item.resourceId() == null) {
+            return failure(index, HttpStatus.BAD_REQUEST, "Resource ID is required");
+        }
+        if (item.startTime() == null || item.endTime() == null) {
+            return failure(index, HttpStatus.BAD_REQUEST, "Start time and end time are required");
+        }
+        if (!item.endTime().isAfter(item.startTime())) {
+            return failure(index, HttpStatus.BAD_REQUEST, "End time must be after start time");
+        }
+        if (item.startTime().isBefore(LocalDateTime.now())) {
+            return failure(index, HttpStatus.BAD_REQUEST, PAST_START_MESSAGE);
+        }
+        if (Duration.between(item.startTime(), item.endTime()).compareTo(Reservation.MAX_LENGTH) > 0) {
+            return failure(index, HttpStatus.BAD_REQUEST, TOO_LONG_MESSAGE);
+        }
+        Resource resource = resources.get(item.resourceId());
+        if (resource == null) {
+            return failure(index, HttpStatus.BAD_REQUEST, "Resource not found: " + item.resourceId());
+        }
+        if (!resource.isActive()) {
+            return failure(index, HttpStatus.BAD_REQUEST, "Resource is not active: " + item.resourceId());
+        }
+        if (!permissionService.canAccessResourceType(userDetails, resource.getResourceType().getId())) {
+            return failure(index, HttpStatus.FORBIDDEN, "You do not have permission to access resources of this type");
+        }
+        return null;
+    }
+
+    /**
+     * Walks the items of one resource in start order next to its ACTIVE
+     * reservations (read with a single query), accepting each item that overlaps
+     * neither an existing reservation nor an item accepted before it.
+     */
+    private void sweepBatchItems(UUID resourceId, List<Integer> indexes, List<ReservationRequest> items,
+            BatchItemResult[] results, List<Integer> accepted) {
+        List<Integer> byStart = indexes.stream()
+                .sorted(Comparator.comparing((Integer i) -> items.get(i).startTime()))
+                .toList();
+        LocalDateTime from = items.get(byStart.get(0)).startTime();
+        LocalDateTime to = byStart.stream()
+                .map(i -> items.get(i).endTime())
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        List<ReservationInterval> existing = reservationRepository.findActiveIntervalsInWindow(resourceId, from, to);
+
+        int next = 0;
+        LocalDateTime acceptedUntil = null;
+        for (int i : byStart) {
+            ReservationRequest item = items.get(i);
+            // Existing reservations never overlap each other, so their ends ascend with their starts
+            while (next < existing.size() && !existing.get(next).endTime().isAfter(item.startTime())) {
+                next++;
+            }
+            if (next < existing.size() && existing.get(next).startTime().isBefore(item.endTime())) {
+                results[i] = failure(i, HttpStatus.CONFLICT, ReservationConflicts.OVERLAP_MESSAGE);
+            } else if (acceptedUntil != null && item.startTime().isBefore(acceptedUntil)) {
+                results[i] = failure(i, HttpStatus.CONFLICT, "Time slot overlaps with another reservation in this batch");
+            } else {
+                accepted.add(i);
+                acceptedUntil = item.endTime();
+            }
+        }
+    }
+
+    /** Translates the failing occurrence of a rejected series into the usual exception. */
+    private static RuntimeException occurrenceFailure(BatchReservationResponse booked,
+            List<ReservationRequest> occurrences) {
+        BatchItemResult failure = booked.results().stream()
+                .filter(r -> r.status() != HttpStatus.FAILED_DEPENDENCY.value())
+                .findFirst()
+                .orElseThrow();
+        if (failure.status() == HttpStatus.FORBIDDEN.value()) {
+            return new AccessDeniedException(failure.error());
+        }
+        if (failure.status() == HttpStatus.CONFLICT.value()) {
+            return new IllegalStateException("Occurrence starting at " + occurrences.get(failure.index()).startTime()
+                    + " conflicts: " + failure.error());
+        }
+        return new IllegalArgumentException(failure.error());
+    }
+
+    private static boolean isAdmin(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private static BatchItemResult failure(int index, HttpStatus status, String error) {
+        return new BatchItemResult(index, status.value(), null, error);
+    }
+
+    /**
+     * Whether the database holds no ACTIVE reservation of the resource overlapping
+     * the window. The interval index cannot answer this: it only sees the writes
+     * of this instance. Final only under the resource's booking lock.
+     */
+    private boolean isFree(UUID resourceId, LocalDateTime start, LocalDateTime end) {
+        return !reservationRepository.existsOverlapping(resourceId, start, end);
+    }
+
+    /** Inserts an auto-assigned reservation; the caller confirmed the resource free under its lock. */
+    private ReservationResponse bookAssigned(Resource resource, AutoAssignReservationRequest request,
+            UserDetails userDetails) {
+        Reservation saved = insert(newReservation(resource,
+                appUserRepository.getReferenceById(currentUserService.idOf(userDetails)),
+                new ReservationRequest(resource.getId(), request.startTime(), request.endTime(), request.notes()),
+                null));
+        publishAdded(List.of(saved));
+        return toResponse(saved, userDetails.getUsername());
+    }
+
+    private static Reservation newReservation(Resource resource, AppUser user, ReservationRequest request,
+            UUID seriesId) {
+        Reservation reservation = new Reservation();
+        reservation.setResource(resource);
+        reservation.setUser(user);
+        reservation.setStartTime(request.startTime());
+        reservation.setEndTime(request.endTime());
+        reservation.setNotes(request.notes());
+        reservation.setSeriesId(seriesId);
+        return reservation;
+    }
+
+    /**
+     * Once the transaction commits, records new reservations in the interval index
+     * and then bumps their resources' and owners' versions. The order matters:
+     * anything that reads the new version must already see the new intervals.
+     */
+    private void publishAdded(List<Reservation> reservations) {
+        AfterCommit.run(() -> reservations.forEach(r -> {
+            intervalIndex.add(r.getResource().getId(), r.getStartTime(), r.getEndTime());
+            versionTracker.bump(r.getResource().getId());
+            versionTracker.bumpUser(r.getUser().getId());
+        }));
+    }
+
+    /**
+     * Counterpart of {@link #publishAdded(List)} for reservations of {@code ownerId}
+     * that stopped being ACTIVE.
+     */
+    private void publishRemoved(List<ReservationInterval> intervals, UUID ownerId) {
+        AfterCommit.run(() -> {
+            intervals.forEach(i -> {
+                intervalIndex.remove(i.resourceId(), i.startTime(), i.endTime());
+                versionTracker.bump(i.resourceId());
+            });
+            versionTracker.bumpUser(ownerId);
+        });
+    }
+
+    /**
+     * Inserts the reservation immediately so that an {@code excl_reservation_overlap}
+     * violation surfaces here as a conflict rather than at commit time.
+     */
+    private Reservation insert(Reservation reservation) {
+        try {
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException ex) {
+            if (ReservationConflicts.isOverlap(ex)) {
+                throw new IllegalStateException(ReservationConflicts.OVERLAP_MESSAGE);
+            }
+            throw ex;
+        }
+    }
+
+    /** Batched counterpart of {@link #insert(Reservation)}. */
+    private List<Reservation> insertAll(List<Reservation> reservations) {
+        try {
+            return reservationRepository.saveAllAndFlush(reservations);
+        } catch (DataIntegrityViolationException ex) {
+            if (ReservationConflicts.isOverlap(ex)) {
+                throw new IllegalStateException(ReservationConflicts.OVERLAP_MESSAGE);
+            }
+            throw ex;
+        }
+    }
+
+    private static void checkNotInPast(LocalDateTime startTime) {
+        if (startTime.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException(PAST_START_MESSAGE);
+        }
+    }
+
+    private static void checkLength(LocalDateTime startTime, LocalDateTime endTime) {
+        if (Duration.between(startTime, endTime).compareTo(Reservation.MAX_LENGTH) > 0) {
+            throw new IllegalArgumentException(TOO_LONG_MESSAGE);
+        }
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > CursorPage.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + CursorPage.MAX_PAGE_SIZE);
+        }
+    }
+
+    private static CursorPage<ReservationResponse> toPage(List<ReservationResponse> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ReservationResponse> page = rows.subList(0, size);
+        return new CursorPage<>(page, HistoryCursor.after(page.get(size - 1)).encode());
     }
 
     private ReservationResponse toResponse(Reservation r) {
+        return toResponse(r, r.getUser().getEmail());
+    }
+
+    private ReservationResponse toResponse(Reservation r, String userEmail) {
         return new ReservationResponse(
                 r.getId(),
                 r.getResource().getId(),
                 r.getResource().getName(),
                 r.getUser().getId(),
-                r.getUser().getEmail(),
+                userEmail,
                 r.getStartTime(),
                 r.getEndTime(),
                 r.getStatus(),
@@ -209,6 +904,7 @@ public class ReservationService {
                 r.getCancelledBy() != null ? r.getCancelledBy().getId() : null,
                 r.getCancelledAt(),
                 r.getCreatedAt(),
-                r.getUpdatedAt());
+                r.getUpdatedAt(),
+                r.getSeriesId());
     }
 }
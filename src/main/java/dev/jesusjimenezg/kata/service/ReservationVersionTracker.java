@@ -0,0 +1,45 @@
+package dev.jesusjimenezg.kata.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of committed reservation writes: per resource, per reservation owner
+ * and overall. {@link ReservationService} bumps them after every create/cancel
+ * commits (and after the interval index has been updated), so anything computed
+ * from a resource's or a user's reservations can be tagged with the version it
+ * was computed at and discarded once that changes.
+ */
+@Component
+public class ReservationVersionTracker {
+
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> userVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    public long current(UUID resourceId) {
+        return versions.getOrDefault(resourceId, 0L);
+    }
+
+    public long currentForUser(UUID userId) {
+        return userVersions.getOrDefault(userId, 0L);
+    }
+
+    /** Changes with every bump of any resource. */
+    public long currentGlobal() {
+        return globalVersion.get();
+    }
+
+    public void bump(UUID resourceId) {
+        versions.merge(resourceId, 1L, Long::sum);
+        globalVersion.incrementAndGet();
+    }
+
+    public void bumpUser(UUID userId) {
+        userVersions.merge(userId, 1L, Long::sum);
+    }
+}
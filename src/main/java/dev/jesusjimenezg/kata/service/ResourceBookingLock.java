@@ -0,0 +1,134 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes reservation writes per resource for the rest of the current
+ * transaction.
+ * <p>
+ * Inside the JVM, writers of the same resource queue on one of a fixed set of
+ * striped locks, so only one of them at a time holds a pooled connection
+ * waiting on the database. Across instances, a transaction-scoped PostgreSQL
+ * advisory lock keyed by the resource ID does the same. Both are released when
+ * the transaction completes.
+ * <p>
+ * A transaction that needs several resources takes them with
+ * {@link #lockAll(Collection)}, never with repeated {@link #lock(UUID)} calls:
+ * stripes are shared by unrelated resources, so only a global order over the
+ * stripes themselves, and then over the advisory keys, keeps two such
+ * transactions from waiting on each other.
+ */
+@Component
+public class ResourceBookingLock {
+
+    private static final int STRIPES = 64;
+
+    private final ReservationRepository reservationRepository;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ResourceBookingLock(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Blocks until the calling transaction is the only writer of the resource.
+     * Must be called inside a transaction.
+     */
+    public void lock(UUID resourceId) {
+        requireTransaction();
+        ReentrantLock stripe = stripeOf(resourceId);
+        stripe.lock();
+        releaseOnCompletion(stripe);
+        reservationRepository.acquireResourceLock(advisoryKey(resourceId));
+    }
+
+    /**
+     * Blocks until the calling transaction is the only writer of every given
+     * resource. Takes the distinct stripes in index order and then the advisory
+     * locks in key order, so concurrent callers always queue in the same order
+     * and cannot deadlock. Must be called inside a transaction, before any other
+     * booking lock of that transaction.
+     */
+    public void lockAll(Collection<UUID> resourceIds) {
+        requireTransaction();
+        int[] indexes = resourceIds.stream().mapToInt(ResourceBookingLock::stripeIndex).distinct().sorted().toArray();
+        for (int index : indexes) {
+            ReentrantLock stripe = stripes[index];
+            stripe.lock();
+            releaseOnCompletion(stripe);
+        }
+        resourceIds.stream()
+                .mapToLong(ResourceBookingLock::advisoryKey)
+                .distinct()
+                .sorted()
+                .forEach(reservationRepository::acquireResourceLock);
+    }
+
+    /**
+     * Like {@link #lock(UUID)}, but gives up instead of queueing behind another
+     * writer: waits at most {@code wait} inside the JVM and not at all on the
+     * database. Returns whether the lock is now held until the transaction ends.
+     */
+    public boolean tryLock(UUID resourceId, Duration wait) {
+        requireTransaction();
+        ReentrantLock stripe = stripeOf(resourceId);
+        try {
+            if (!stripe.tryLock(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (!Boolean.TRUE.equals(reservationRepository.tryAcquireResourceLock(advisoryKey(resourceId)))) {
+            stripe.unlock();
+            return false;
+        }
+        releaseOnCompletion(stripe);
+        return true;
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Resource booking lock requires an active transaction");
+        }
+    }
+
+    private static void releaseOnCompletion(ReentrantLock stripe) {
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    stripe.unlock();
+                }
+            });
+        } catch (RuntimeException ex) {
+            stripe.unlock();
+            throw ex;
+        }
+    }
+
+    private ReentrantLock stripeOf(UUID resourceId) {
+        return stripes[stripeIndex(resourceId)];
+    }
+
+    static int stripeIndex(UUID resourceId) {
+        return Math.floorMod(resourceId.hashCode(), STRIPES);
+    }
+
+    static long advisoryKey(UUID resourceId) {
+        return resourceId.getMostSignificantBits() ^ resourceId.getLeastSignificantBits();
+    }
+}
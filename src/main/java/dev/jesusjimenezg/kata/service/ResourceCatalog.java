@@ -0,0 +1,110 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import dev.jesusjimenezg.kata.dto.ResourceTypeResponse;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.ResourceTypeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory copy of the resource catalog, so resource listings, lookups and
+ * searches run without a query.
+ * <p>
+ * Loaded once the application is ready, then rebuilt and swapped atomically
+ * after every resource or resource type write commits through this instance
+ * (copy-on-write: readers keep using the snapshot they got, without locking).
+ * It is also rebuilt every {@code refresh-interval}, which bounds how stale it
+ * can be when other instances write to the same database; a rebuild that finds
+ * the same resources and resource types keeps the current snapshot and its
+ * version, so the listings and ETags keyed on it stay valid. Disable it with
+ * {@code app.resources.catalog.enabled=false} to serve every read from the
+ * database.
+ */
+@Component
+public class ResourceCatalog {
+
+    private final ResourceRepository resourceRepository;
+    private final ResourceTypeRepository resourceTypeRepository;
+    private final boolean enabled;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    // What the current snapshot was built from, by ID; only touched by reload()
+    private List<ResourceResponse> loadedResources;
+    private List<ResourceTypeResponse> loadedTypes;
+
+    public ResourceCatalog(ResourceRepository resourceRepository,
+            ResourceTypeRepository resourceTypeRepository,
+            @Value("${app.resources.catalog.enabled:true}") boolean enabled) {
+        this.resourceRepository = resourceRepository;
+        this.resourceTypeRepository = resourceTypeRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.resources.catalog.refresh-interval:PT5M}",
+            fixedDelayString = "${app.resources.catalog.refresh-interval:PT5M}")
+    public void refresh() {
+        if (isReady()) {
+            reload();
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot.get() != null;
+    }
+
+    /**
+     * Rebuilds the snapshot once the current transaction commits.
+     */
+    public void invalidate() {
+        if (enabled) {
+            AfterCommit.run(this::reload);
+        }
+    }
+
+    /** Version of the current snapshot; changes whenever the catalog does. 0 until the catalog is ready. */
+    public long version() {
+        return snapshot().version();
+    }
+
+    /** The current snapshot; empty until the catalog is ready. */
+    CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot.get();
+        return current != null ? current : CatalogSnapshot.EMPTY;
+    }
+
+    // Serialized so that the last reload to run always installs the newest state
+    private synchronized void reload() {
+        List<ResourceResponse> resources = resourceRepository.findAll().stream()
+                .map(ResourceService::toResponse)
+                .sorted(Comparator.comparing(ResourceResponse::id))
+                .toList();
+        // Types without resources only show in the type listings, which are keyed on the version too
+        List<ResourceTypeResponse> types = resourceTypeRepository.findAll().stream()
+                .map(rt -> new ResourceTypeResponse(rt.getId(), rt.getName(), rt.getDescription()))
+                .sorted(Comparator.comparing(ResourceTypeResponse::id))
+                .toList();
+        if (isReady() && resources.equals(loadedResources) && types.equals(loadedTypes)) {
+            return;
+        }
+        loadedResources = resources;
+        loadedTypes = types;
+        snapshot.set(CatalogSnapshot.of(resources, types.stream().map(ResourceTypeResponse::id).toList(),
+                versions.incrementAndGet()));
+    }
+}
@@ -0,0 +1,88 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a resource listing: its sort and the sort key and ID of the last
+ * row of the previous page. Relevance has no stable key (ranking already scores
+ * every match), so its key is the number of results returned so far. Encoded as
+ * URL-safe base64, like {@link HistoryCursor}, so clients treat it as opaque.
+ */
+record ResourceCursor(ResourceSort sort, String key, UUID id) {
+
+    static ResourceCursor after(ResourceSort sort, ResourceResponse last, int returned) {
+        String key = switch (sort) {
+            case NAME, NAME_DESC -> last.name();
+            case CREATED_AT, CREATED_AT_DESC -> last.createdAt().toString();
+            case RELEVANCE -> Integer.toString(returned);
+        };
+        return new ResourceCursor(sort, key, last.id());
+    }
+
+    LocalDateTime createdAt() {
+        return LocalDateTime.parse(key);
+    }
+
+    int offset() {
+        return Integer.parseInt(key);
+    }
+
+    /**
+     * Compares this position with a row in ascending key order: negative when the
+     * row comes after it. Not meaningful for relevance.
+     */
+    int compareTo(ResourceResponse row) {
+        if (sort.byName()) {
+            return ResourceSort.NAME_ORDER.compare(key, row.name());
+        }
+        int byTime = createdAt().compareTo(row.createdAt());
+        // UUIDs compare as their text, which is how PostgreSQL orders them
+        return byTime != 0 ? byTime : id.toString().compareTo(row.id().toString());
+    }
+
+    String encode() {
+        String raw = sort.param() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a cursor, which must come from a listing with the same sort. */
+    static ResourceCursor decode(String cursor, ResourceSort sort) {
+        String sortParam;
+        ResourceCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // Names may contain the separator: the sort ends at the first one, the ID starts after the last
+            int first = raw.indexOf('|');
+            int last = raw.lastIndexOf('|');
+            if (first < 0 || last == first) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            sortParam = raw.substring(0, first);
+            decoded = new ResourceCursor(sort, raw.substring(first + 1, last),
+                    UUID.fromString(raw.substring(last + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sortParam.equals(sort.param())) {
+            throw new IllegalArgumentException("Cursor does not match the sort order");
+        }
+        // The key has to parse as what the sort expects
+        try {
+            if (sort == ResourceSort.RELEVANCE && decoded.offset() < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (sort == ResourceSort.CREATED_AT || sort == ResourceSort.CREATED_AT_DESC) {
+                decoded.createdAt();
+            }
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return decoded;
+    }
+}
@@ -1,25 +1,27 @@
 package dev.jesusjimenezg.kata.service;
 
 import dev.jesusjimenezg.kata.repository.ResourceTypeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Central service for role-based resource type permissions.
- * Queries the {@code role_resource_type_permission} table to determine
- * which resource types are accessible to the authenticated user.
+ * Keeps an in-memory {@link PermissionMatrix} loaded from the
+ * {@code role_resource_type_permission} table, so permission checks never
+ * touch the database. The matrix is reloaded and swapped atomically after
+ * resource types change through {@link ResourceTypeService}.
  */
 @Service
 public class ResourcePermissionService {
 
     private final ResourceTypeRepository resourceTypeRepository;
+    private final AtomicReference<PermissionMatrix> matrix = new AtomicReference<>();
 
     public ResourcePermissionService(ResourceTypeRepository resourceTypeRepository) {
         this.resourceTypeRepository = resourceTypeRepository;
@@ -30,15 +32,22 @@ public class ResourcePermissionService {
      * computed as the union of permissions from all assigned roles.
      */
     public Set<Integer> getAllowedResourceTypeIds(UserDetails userDetails) {
-        Collection<String> roleNames = extractRoleNames(userDetails);
-        return new HashSet<>(resourceTypeRepository.findAllowedResourceTypeIdsByRoleNames(roleNames));
+        return PermissionMatrix.toTypeIds(matrix().union(userDetails.getAuthorities()));
+    }
+
+    /**
+     * Same as {@link #getAllowedResourceTypeIds(UserDetails)}, as a bitset indexed
+     * by resource type ID.
+     */
+    long[] getAllowedResourceTypeMask(UserDetails userDetails) {
+        return matrix().union(userDetails.getAuthorities());
     }
 
     /**
      * Returns {@code true} if the user can access the given resource type.
      */
     public boolean canAccessResourceType(UserDetails userDetails, Integer resourceTypeId) {
-        return getAllowedResourceTypeIds(userDetails).contains(resourceTypeId);
+        return resourceTypeId != null && matrix().allows(userDetails.getAuthorities(), resourceTypeId);
     }
 
     /**
@@ -52,10 +61,27 @@ public class ResourcePermissionService {
         }
     }
 
-    private Set<String> extractRoleNames(UserDetails userDetails) {
-        return userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .map(auth -> auth.startsWith("ROLE_") ? auth.substring(5) : auth)
-                .collect(Collectors.toSet());
+    /**
+     * Reloads the permission matrix once the current transaction commits.
+     */
+    public void invalidate() {
+        AfterCommit.run(this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    private PermissionMatrix matrix() {
+        PermissionMatrix current = matrix.get();
+        return current != null ? current : reload();
+    }
+
+    // Serialized so that the last reload to run always installs the newest state
+    private synchronized PermissionMatrix reload() {
+        PermissionMatrix loaded = PermissionMatrix.of(resourceTypeRepository.findAllRolePermissions());
+        matrix.set(loaded);
+        return loaded;
     }
 }
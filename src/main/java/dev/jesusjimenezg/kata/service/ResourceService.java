@@ -1,5 +1,6 @@
 package dev.jesusjimenezg.kata.service;
 
+import dev.jesusjimenezg.kata.dto.CursorPage;
 import dev.jesusjimenezg.kata.dto.ResourceRequest;
 import dev.jesusjimenezg.kata.dto.ResourceResponse;
 import dev.jesusjimenezg.kata.dto.ResourceTypeResponse;
@@ -14,8 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -24,67 +25,167 @@ public class ResourceService {
     private final ResourceRepository resourceRepository;
     private final ResourceTypeRepository resourceTypeRepository;
     private final ResourcePermissionService permissionService;
+    private final CurrentUserService currentUserService;
+    private final ResourceCatalog catalog;
+    private final CatalogResponseCache responseCache;
 
     public ResourceService(ResourceRepository resourceRepository,
             ResourceTypeRepository resourceTypeRepository,
-            ResourcePermissionService permissionService) {
+            ResourcePermissionService permissionService,
+            CurrentUserService currentUserService,
+            ResourceCatalog catalog,
+            CatalogResponseCache responseCache) {
         this.resourceRepository = resourceRepository;
         this.resourceTypeRepository = resourceTypeRepository;
         this.permissionService = permissionService;
+        this.currentUserService = currentUserService;
+        this.catalog = catalog;
+        this.responseCache = responseCache;
     }
 
-    @Transactional(readOnly = true)
+    // Reads are served from the in-memory catalog once it is loaded, filtered by
+    // the caller's role permissions; the database queries remain as the fallback.
+    // They run without a transaction so that catalog hits never take a
+    // connection; the fallbacks only use single repository calls, and a
+    // resource's type is loaded eagerly.
+
     public List<ResourceResponse> findAll(UserDetails userDetails) {
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
-        return resourceRepository.findByResourceTypeIdIn(allowed).stream()
-                .map(this::toResponse)
+        if (catalog.isReady()) {
+            return catalog.snapshot().list(permissionService.getAllowedResourceTypeMask(userDetails), false, null);
+        }
+        return resourceRepository.findVisibleTo(currentUserService.idOf(userDetails)).stream()
+                .map(ResourceService::toResponse)
                 .toList();
     }
 
-    @Transactional(readOnly = true)
     public List<ResourceResponse> findActive(UserDetails userDetails) {
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
-        return resourceRepository.findByActiveTrueAndResourceTypeIdIn(allowed).stream()
-                .map(this::toResponse)
+        if (catalog.isReady()) {
+            return catalog.snapshot().list(permissionService.getAllowedResourceTypeMask(userDetails), true, null);
+        }
+        return resourceRepository.findActiveVisibleTo(currentUserService.idOf(userDetails)).stream()
+                .map(ResourceService::toResponse)
                 .toList();
     }
 
-    @Transactional(readOnly = true)
     public List<ResourceResponse> findByType(Integer resourceTypeId, UserDetails userDetails) {
         permissionService.checkAccess(userDetails, resourceTypeId);
+        if (catalog.isReady()) {
+            return catalog.snapshot().list(permissionService.getAllowedResourceTypeMask(userDetails), false,
+                    resourceTypeId);
+        }
         return resourceRepository.findByResourceTypeId(resourceTypeId).stream()
-                .map(this::toResponse)
+                .map(ResourceService::toResponse)
                 .toList();
     }
 
     /**
      * Unified search: combines optional text search, active filter, and type
-     * filter.
-     * Always constrained by the user's allowed resource types.
+     * filter, one page at a time.
+     * Always constrained by the user's allowed resource types. Pages are keyed
+     * on the last row's sort key (name, or creation time and ID), so each page
+     * starts with an index seek however far into the listing it is. With a text
+     * search, results come ranked by relevance unless another sort is asked for;
+     * ranking scores every match anyway, so those pages are plain offsets.
      */
-    @Transactional(readOnly = true)
-    public List<ResourceResponse> search(String query, Boolean active, Integer typeId, UserDetails userDetails) {
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
+    public CursorPage<ResourceResponse> search(String query, Boolean active, Integer typeId, String sort,
+            String cursor, int size, UserDetails userDetails) {
+        if (size < 1 || size > CursorPage.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + CursorPage.MAX_PAGE_SIZE);
+        }
+        boolean activeOnly = active != null && active;
+        boolean hasText = query != null && !query.isBlank();
+        ResourceSort order = ResourceSort.of(sort, hasText);
+        ResourceCursor after = cursor == null || cursor.isBlank() ? null : ResourceCursor.decode(cursor, order);
+        int skip = order == ResourceSort.RELEVANCE && after != null ? after.offset() : 0;
+        // One extra row tells whether another page follows
+        int limit = size + 1;
 
-        Specification<Resource> spec = Specification.where(ResourceSpecification.hasTypeIdIn(allowed));
+        List<ResourceResponse> rows;
+        if (catalog.isReady()) {
+            CatalogSnapshot snapshot = catalog.snapshot();
+            long[] allowed = permissionService.getAllowedResourceTypeMask(userDetails);
+            if (order == ResourceSort.RELEVANCE) {
+                List<ResourceResponse> ranked = snapshot.search(query.strip(), allowed, activeOnly, typeId);
+                rows = ranked.subList(Math.min(skip, ranked.size()), Math.min(skip + limit, ranked.size()));
+            } else if (hasText) {
+                // Text matches in a key order: sort them, then seek past the cursor
+                rows = snapshot.search(query.strip(), allowed, activeOnly, typeId).stream()
+                        .sorted(comparator(order))
+                        .filter(row -> after == null || precedes(after, row, order))
+                        .limit(limit)
+                        .toList();
+            } else {
+                rows = snapshot.page(allowed, activeOnly, typeId, order, after, limit);
+            }
+        } else {
+            Specification<Resource> spec = Specification.where(
+                    ResourceSpecification.isVisibleTo(currentUserService.idOf(userDetails)));
 
-        if (active != null && active) {
-            spec = spec.and(ResourceSpecification.isActive());
-        }
-        if (typeId != null) {
-            spec = spec.and(ResourceSpecification.hasTypeId(typeId));
+            if (activeOnly) {
+                spec = spec.and(ResourceSpecification.isActive());
+            }
+            if (typeId != null) {
+                spec = spec.and(ResourceSpecification.hasTypeId(typeId));
+            }
+            if (hasText) {
+                spec = spec.and(ResourceSpecification.matchesText(query.strip()));
+            }
+            spec = spec.and(switch (order) {
+                case RELEVANCE -> ResourceSpecification.orderedByRelevance(query.strip());
+                case NAME, NAME_DESC -> ResourceSpecification.orderedByName(order.descending(),
+                        after == null ? null : after.key());
+                case CREATED_AT, CREATED_AT_DESC -> ResourceSpecification.orderedByCreatedAt(order.descending(),
+                        after == null ? null : after.createdAt(), after == null ? null : after.id());
+            });
+
+            rows = resourceRepository.findBy(spec, q -> q.limit(skip + limit).all()).stream()
+                    .skip(skip)
+                    .map(ResourceService::toResponse)
+                    .toList();
         }
-        if (query != null && !query.isBlank()) {
-            spec = spec.and(ResourceSpecification.searchText(query.strip()));
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
         }
+        List<ResourceResponse> page = rows.subList(0, size);
+        return new CursorPage<>(page,
+                ResourceCursor.after(order, page.get(size - 1), skip + size).encode());
+    }
 
-        return resourceRepository.findAll(spec).stream()
-                .map(this::toResponse)
-                .toList();
+    /**
+     * {@link #search} serialized to JSON through the {@link CatalogResponseCache},
+     * shared by every caller with the same allowed resource types.
+     */
+    public SerializedResponse searchSerialized(String query, Boolean active, Integer typeId, String sort,
+            String cursor, int size, UserDetails userDetails) {
+        String text = query == null ? "" : query.strip();
+        String params = "search=" + text + "&active=" + (active != null && active) + "&typeId=" + typeId
+                + "&sort=" + sort + "&cursor=" + cursor + "&size=" + size;
+        return responseCache.get("resources", params, permissionService.getAllowedResourceTypeMask(userDetails),
+                () -> search(query, active, typeId, sort, cursor, size, userDetails));
+    }
+
+    /** Ascending or descending key order of {@code sort}, as the database applies it. */
+    private static Comparator<ResourceResponse> comparator(ResourceSort sort) {
+        Comparator<ResourceResponse> ascending = sort.byName()
+                ? Comparator.comparing(ResourceResponse::name, ResourceSort.NAME_ORDER)
+                : Comparator.comparing(ResourceResponse::createdAt).thenComparing(row -> row.id().toString());
+        return sort.descending() ? ascending.reversed() : ascending;
+    }
+
+    /** Whether {@code row} comes after the cursor in {@code sort} order. */
+    private static boolean precedes(ResourceCursor after, ResourceResponse row, ResourceSort sort) {
+        int comparison = after.compareTo(row);
+        return sort.descending() ? comparison > 0 : comparison < 0;
     }
 
-    @Transactional(readOnly = true)
     public ResourceResponse findById(UUID id, UserDetails userDetails) {
+        ResourceResponse cached = catalog.snapshot().get(id);
+        if (cached != null) {
+            permissionService.checkAccess(userDetails, cached.resourceType().id());
+            return cached;
+        }
+        // Not in the catalog (not loaded yet, or created by another instance since)
         Resource resource = resourceRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Resource not found: " + id));
         permissionService.checkAccess(userDetails, resource.getResourceType().getId());
@@ -106,7 +207,9 @@ public class ResourceService {
         resource.setDescription(request.description());
         resource.setResourceType(type);
         resource.setLocation(request.location());
-        return toResponse(resourceRepository.save(resource));
+        ResourceResponse response = toResponse(resourceRepository.save(resource));
+        catalog.invalidate();
+        return response;
     }
 
     @Transactional
@@ -128,7 +231,9 @@ public class ResourceService {
         resource.setResourceType(type);
         resource.setLocation(request.location());
         resource.setUpdatedAt(LocalDateTime.now());
-        return toResponse(resourceRepository.save(resource));
+        ResourceResponse response = toResponse(resourceRepository.save(resource));
+        catalog.invalidate();
+        return response;
     }
 
     @Transactional
@@ -138,9 +243,10 @@ public class ResourceService {
         resource.setActive(false);
         resource.setUpdatedAt(LocalDateTime.now());
         resourceRepository.save(resource);
+        catalog.invalidate();
     }
 
-    private ResourceResponse toResponse(Resource r) {
+    static ResourceResponse toResponse(Resource r) {
         ResourceType rt = r.getResourceType();
         return new ResourceResponse(
                 r.getId(),
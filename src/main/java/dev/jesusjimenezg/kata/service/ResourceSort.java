@@ -0,0 +1,77 @@
+package dev.jesusjimenezg.kata.service;
+
+import java.util.Comparator;
+
+/**
+ * Orders of the resource listing, by their {@code sort} parameter. A leading
+ * {@code -} means descending. Names are unique, so they need no tie-breaker;
+ * creation times are tied by ID.
+ */
+enum ResourceSort {
+
+    NAME("name", false),
+    NAME_DESC("-name", true),
+    CREATED_AT("createdAt", false),
+    CREATED_AT_DESC("-createdAt", true),
+    RELEVANCE("relevance", false);
+
+    /**
+     * Order of names: by Unicode code point, which is the byte order of UTF-8 and
+     * so the order of {@code COLLATE "C"} in the database. Unlike
+     * {@link String#compareTo}, it does not put supplementary characters before
+     * {@code U+E000}-{@code U+FFFF}.
+     */
+    static final Comparator<String> NAME_ORDER = ResourceSort::compareNames;
+
+    private final String param;
+    private final boolean descending;
+
+    ResourceSort(String param, boolean descending) {
+        this.param = param;
+        this.descending = descending;
+    }
+
+    String param() {
+        return param;
+    }
+
+    boolean descending() {
+        return descending;
+    }
+
+    boolean byName() {
+        return this == NAME || this == NAME_DESC;
+    }
+
+    /** Parses the {@code sort} parameter; by default, relevance with a search text and name without. */
+    static ResourceSort of(String value, boolean hasText) {
+        if (value == null || value.isBlank()) {
+            return hasText ? RELEVANCE : NAME;
+        }
+        for (ResourceSort sort : values()) {
+            if (sort.param.equals(value.strip())) {
+                if (sort == RELEVANCE && !hasText) {
+                    throw new IllegalArgumentException("Sorting by relevance needs a search text");
+                }
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unsupported sort: " + value + " (use name, -name, createdAt, -createdAt or relevance)");
+    }
+
+    private static int compareNames(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int left = a.codePointAt(i);
+            int right = b.codePointAt(j);
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+            i += Character.charCount(left);
+            j += Character.charCount(right);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+}
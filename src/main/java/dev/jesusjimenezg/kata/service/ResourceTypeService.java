@@ -8,29 +8,51 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 
 @Service
 public class ResourceTypeService {
 
     private final ResourceTypeRepository resourceTypeRepository;
     private final ResourcePermissionService permissionService;
+    private final CurrentUserService currentUserService;
+    private final ResourceCatalog catalog;
+    private final CatalogResponseCache responseCache;
 
     public ResourceTypeService(ResourceTypeRepository resourceTypeRepository,
-            ResourcePermissionService permissionService) {
+            ResourcePermissionService permissionService,
+            CurrentUserService currentUserService,
+            ResourceCatalog catalog,
+            CatalogResponseCache responseCache) {
         this.resourceTypeRepository = resourceTypeRepository;
         this.permissionService = permissionService;
+        this.currentUserService = currentUserService;
+        this.catalog = catalog;
+        this.responseCache = responseCache;
     }
 
     @Transactional(readOnly = true)
     public List<ResourceTypeResponse> findAll(UserDetails userDetails) {
-        Set<Integer> allowed = permissionService.getAllowedResourceTypeIds(userDetails);
-        return resourceTypeRepository.findByIdIn(allowed).stream()
+        return resourceTypeRepository.findVisibleTo(currentUserService.idOf(userDetails)).stream()
                 .map(this::toResponse)
                 .toList();
     }
 
+    /**
+     * The resource types the caller's roles grant, by ID, serialized to JSON
+     * through the {@link CatalogResponseCache}. The list depends on the roles
+     * only, so every caller with the same allowed types shares the body.
+     */
+    public SerializedResponse findAllSerialized(UserDetails userDetails) {
+        return responseCache.get("resource-types", "", permissionService.getAllowedResourceTypeMask(userDetails),
+                () -> resourceTypeRepository.findByIdIn(permissionService.getAllowedResourceTypeIds(userDetails))
+                        .stream()
+                        .sorted(Comparator.comparing(ResourceType::getId))
+                        .map(this::toResponse)
+                        .toList());
+    }
+
     @Transactional(readOnly = true)
     public ResourceTypeResponse findById(Integer id, UserDetails userDetails) {
         permissionService.checkAccess(userDetails, id);
@@ -45,7 +67,11 @@ public class ResourceTypeService {
             throw new IllegalArgumentException("Resource type name already exists: " + request.name());
         }
         ResourceType rt = new ResourceType(request.name(), request.description());
-        return toResponse(resourceTypeRepository.save(rt));
+        ResourceTypeResponse response = toResponse(resourceTypeRepository.save(rt));
+        permissionService.invalidate();
+        // Bumps the catalog version the cached type listings are keyed on
+        catalog.invalidate();
+        return response;
     }
 
     @Transactional
@@ -61,7 +87,10 @@ public class ResourceTypeService {
 
         rt.setName(request.name());
         rt.setDescription(request.description());
-        return toResponse(resourceTypeRepository.save(rt));
+        ResourceTypeResponse response = toResponse(resourceTypeRepository.save(rt));
+        // Resources embed their type
+        catalog.invalidate();
+        return response;
     }
 
     @Transactional
@@ -70,6 +99,9 @@ public class ResourceTypeService {
             throw new IllegalArgumentException("Resource type not found: " + id);
         }
         resourceTypeRepository.deleteById(id);
+        // Permissions of the deleted type are removed by ON DELETE CASCADE
+        permissionService.invalidate();
+        catalog.invalidate();
     }
 
     private ResourceTypeResponse toResponse(ResourceType rt) {
@@ -0,0 +1,14 @@
+package dev.jesusjimenezg.kata.service;
+
+/**
+ * A response body serialized to JSON ahead of writing it out, with its gzip
+ * encoding when worth having and the strong ETag of the identity encoding.
+ * {@code gzip} and {@code etag} are {@code null} when not available.
+ */
+public record SerializedResponse(byte[] json, byte[] gzip, String etag) {
+
+    /** ETag of the gzip encoding, which is a different representation. */
+    public String gzipEtag() {
+        return etag == null ? null : etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+}
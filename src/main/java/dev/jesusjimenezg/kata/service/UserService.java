@@ -7,6 +7,7 @@ import dev.jesusjimenezg.kata.model.AppUser;
 import dev.jesusjimenezg.kata.model.Role;
 import dev.jesusjimenezg.kata.repository.AppUserRepository;
 import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.UserStatusCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,13 +25,16 @@ public class UserService {
     private final AppUserRepository appUserRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
 
     public UserService(AppUserRepository appUserRepository,
             RoleRepository roleRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            UserStatusCache userStatusCache) {
         this.appUserRepository = appUserRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userStatusCache = userStatusCache;
     }
 
     @Transactional(readOnly = true)
@@ -79,6 +83,10 @@ public class UserService {
         if (request.enabled() != null) {
             user.setEnabled(request.enabled());
         }
+        if (request.roles() != null || request.enabled() != null) {
+            // Tokens issued before this change no longer reflect the user's roles/status
+            userStatusCache.markChanged(user.getEmail());
+        }
 
         user.setUpdatedAt(LocalDateTime.now());
         return toResponse(appUserRepository.save(user));
@@ -91,6 +99,7 @@ public class UserService {
         user.setEnabled(false);
         user.setUpdatedAt(LocalDateTime.now());
         appUserRepository.save(user);
+        userStatusCache.markChanged(user.getEmail());
     }
 
     private Set<Role> resolveRoles(Set<String> roleNames) {
@@ -0,0 +1,22 @@
+-- V10: Ranked, typo-tolerant resource search
+-- search_vector: weighted full-text document (name > location > description)
+-- search_text:   lower-cased concatenation for trigram matching and LIKE
+CREATE EXTENSION IF NOT EXISTS "pg_trgm"; -- trigram similarity and indexed LIKE
+
+ALTER TABLE resource
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('spanish', coalesce(name, '')), 'A') ||
+            setweight(to_tsvector('spanish', coalesce(location, '')), 'B') ||
+            setweight(to_tsvector('spanish', coalesce(description, '')), 'C')
+        ) STORED,
+    ADD COLUMN IF NOT EXISTS search_text TEXT
+        GENERATED ALWAYS AS (
+            lower(name || ' ' || coalesce(location, '') || ' ' || coalesce(description, ''))
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_resource_search_vector
+    ON resource USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_resource_search_text_trgm
+    ON resource USING gin (search_text gin_trgm_ops);
@@ -0,0 +1,26 @@
+-- V11: Composite indexes for keyset pagination of the resource listing,
+-- matching ORDER BY name COLLATE "C" and ORDER BY created_at, id, with the
+-- active and type filters. Names are ordered by code point, as the in-memory
+-- catalog orders them, so its cursors stay valid whichever one serves a page.
+-- uq_resource_name uses the column's collation and cannot serve that order,
+-- hence idx_resource_name_c for the unfiltered listing.
+CREATE INDEX IF NOT EXISTS idx_resource_name_c
+    ON resource(name COLLATE "C");
+
+CREATE INDEX IF NOT EXISTS idx_resource_active_name_c
+    ON resource(name COLLATE "C") WHERE active;
+
+CREATE INDEX IF NOT EXISTS idx_resource_type_name_c
+    ON resource(resource_type_id, name COLLATE "C");
+
+CREATE INDEX IF NOT EXISTS idx_resource_created
+    ON resource(created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_resource_active_created
+    ON resource(created_at, id) WHERE active;
+
+CREATE INDEX IF NOT EXISTS idx_resource_type_created
+    ON resource(resource_type_id, created_at, id);
+
+-- Its column leads idx_resource_type_name_c
+DROP INDEX IF EXISTS idx_resource_type;
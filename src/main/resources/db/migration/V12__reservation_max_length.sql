@@ -0,0 +1,10 @@
+-- V12: Cap the length of a reservation at 31 days (Reservation.MAX_LENGTH).
+-- Overlap and window queries only bound start_time from above, which prunes
+-- the partitions that start after the range but still probes every older
+-- one. With a maximum length, a reservation that can overlap a range starting
+-- at t must start after t - 31 days; the queries add that lower bound
+-- (may_run_at), so PostgreSQL skips the partitions that end 31 days or more
+-- before the range. Added on the partitioned table, the constraint reaches every
+-- partition, and create_reservation_partition copies it into new ones.
+ALTER TABLE reservation
+    ADD CONSTRAINT chk_reservation_length CHECK (end_time - start_time <= INTERVAL '31 days');
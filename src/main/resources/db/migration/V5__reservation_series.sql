@@ -0,0 +1,7 @@
+-- V5: Link the occurrences of a recurring reservation through a series id
+ALTER TABLE reservation
+    ADD COLUMN IF NOT EXISTS series_id UUID;
+
+CREATE INDEX IF NOT EXISTS idx_reservation_series
+    ON reservation(series_id)
+    WHERE series_id IS NOT NULL;
@@ -0,0 +1,11 @@
+-- V6: Composite indexes for keyset pagination of reservation history,
+-- matching ORDER BY start_time DESC, id DESC per resource and per user.
+-- They lead with the same column as the single-column indexes they replace.
+CREATE INDEX IF NOT EXISTS idx_reservation_resource_history
+    ON reservation(resource_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_user_history
+    ON reservation(user_id, start_time DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_reservation_resource;
+DROP INDEX IF EXISTS idx_reservation_user;
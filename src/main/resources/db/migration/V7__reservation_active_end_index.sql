@@ -0,0 +1,5 @@
+-- V7: Lets the completion job find ended ACTIVE reservations in end_time order
+-- without scanning history
+CREATE INDEX IF NOT EXISTS idx_reservation_active_end
+    ON reservation(end_time)
+    WHERE status = 'ACTIVE';
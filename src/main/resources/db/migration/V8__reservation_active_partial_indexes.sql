@@ -0,0 +1,8 @@
+-- V8: Partial index for a user's ACTIVE reservations
+-- Overlap checks and availability windows are answered by the GiST index behind
+-- excl_reservation_overlap (already partial on status = 'ACTIVE') now that they
+-- are written as tsrange && tsrange. This covers the "my active reservations"
+-- listing without walking the user's whole history.
+CREATE INDEX IF NOT EXISTS idx_reservation_active_user
+    ON reservation(user_id, start_time)
+    WHERE status = 'ACTIVE';
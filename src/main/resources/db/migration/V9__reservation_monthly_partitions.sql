@@ -0,0 +1,156 @@
+-- V9: Range-partition reservation by month of start_time
+-- PostgreSQL 16 has no exclusion constraints on partitioned tables, so
+-- excl_reservation_overlap becomes one constraint per partition
+-- (excl_reservation_overlap_<suffix>). Overlaps between reservations in
+-- different partitions are still rejected by the booking path, which checks
+-- existsOverlapping under the per-resource advisory lock.
+-- Partitioning alone does not prune those overlap checks: they bound
+-- start_time from above only, so every older partition is still probed.
+-- V12 caps the reservation length, which gives them a lower bound too.
+-- The primary key has to include the partition key: (id, start_time).
+
+-- ============================================================
+-- 1. Move the current table aside, freeing its index names
+-- ============================================================
+ALTER TABLE reservation RENAME TO reservation_unpartitioned;
+ALTER TABLE reservation_unpartitioned DROP CONSTRAINT excl_reservation_overlap;
+ALTER TABLE reservation_unpartitioned DROP CONSTRAINT reservation_pkey;
+DROP INDEX IF EXISTS idx_reservation_status;
+DROP INDEX IF EXISTS idx_reservation_times;
+DROP INDEX IF EXISTS idx_reservation_series;
+DROP INDEX IF EXISTS idx_reservation_resource_history;
+DROP INDEX IF EXISTS idx_reservation_user_history;
+DROP INDEX IF EXISTS idx_reservation_active_end;
+DROP INDEX IF EXISTS idx_reservation_active_user;
+
+-- ============================================================
+-- 2. Partitioned table and its (partitioned) indexes
+-- ============================================================
+CREATE TABLE reservation (
+    id            UUID      NOT NULL DEFAULT gen_random_uuid(),
+    resource_id   UUID      NOT NULL REFERENCES resource(id),
+    user_id       UUID      NOT NULL REFERENCES app_user(id),
+    start_time    TIMESTAMP NOT NULL,
+    end_time      TIMESTAMP NOT NULL,
+    status        VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    notes         TEXT,
+    cancelled_by  UUID      REFERENCES app_user(id),
+    cancelled_at  TIMESTAMP,
+    created_at    TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at    TIMESTAMP NOT NULL DEFAULT now(),
+    series_id     UUID,
+
+    CONSTRAINT reservation_pkey       PRIMARY KEY (id, start_time),
+    CONSTRAINT chk_reservation_time   CHECK (end_time > start_time),
+    CONSTRAINT chk_reservation_status CHECK (status IN ('ACTIVE', 'CANCELLED', 'COMPLETED'))
+) PARTITION BY RANGE (start_time);
+
+CREATE INDEX idx_reservation_status ON reservation(status);
+CREATE INDEX idx_reservation_times  ON reservation(start_time, end_time);
+CREATE INDEX idx_reservation_series ON reservation(series_id) WHERE series_id IS NOT NULL;
+CREATE INDEX idx_reservation_resource_history ON reservation(resource_id, start_time DESC, id DESC);
+CREATE INDEX idx_reservation_user_history     ON reservation(user_id, start_time DESC, id DESC);
+CREATE INDEX idx_reservation_active_end  ON reservation(end_time) WHERE status = 'ACTIVE';
+CREATE INDEX idx_reservation_active_user ON reservation(user_id, start_time) WHERE status = 'ACTIVE';
+
+-- Catches bookings beyond the months created so far
+CREATE TABLE reservation_default PARTITION OF reservation DEFAULT;
+ALTER TABLE reservation_default
+    ADD CONSTRAINT excl_reservation_overlap_default
+    EXCLUDE USING gist (
+        resource_id WITH =,
+        tsrange(start_time, end_time, '[)') WITH &&
+    ) WHERE (status = 'ACTIVE');
+
+-- Detached partitions are kept here, out of the application's queries
+CREATE SCHEMA IF NOT EXISTS reservation_archive;
+
+-- ============================================================
+-- 3. Partition maintenance (called by ReservationPartitionJob)
+-- ============================================================
+
+-- Creates the partition reservation_pYYYY_MM for the month containing
+-- month_start, moving in any rows the default partition holds for it.
+-- Returns false when the partition already exists. Both maintenance functions
+-- serialize on one advisory lock, so several instances may run the job.
+CREATE OR REPLACE FUNCTION create_reservation_partition(month_start DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts TIMESTAMP := date_trunc('month', month_start);
+    to_ts   TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    suffix  TEXT      := to_char(date_trunc('month', month_start), 'YYYY_MM');
+    part    TEXT      := 'reservation_p' || suffix;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('reservation_partitions'));
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE reservation INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM reservation_default WHERE start_time >= $1 AND start_time < $2 RETURNING *) '
+        'INSERT INTO %I SELECT * FROM moved', part)
+        USING from_ts, to_ts;
+    EXECUTE format(
+        'ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+        '(resource_id WITH =, tsrange(start_time, end_time, ''[)'') WITH &&) WHERE (status = ''ACTIVE'')',
+        part, 'excl_reservation_overlap_' || suffix);
+    EXECUTE format('ALTER TABLE reservation ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        part, from_ts, to_ts);
+    RETURN TRUE;
+END;
+$$;
+
+-- Detaches the monthly partitions that end on or before cutoff and moves them
+-- to the reservation_archive schema. Partitions still holding ACTIVE rows are
+-- left alone. Returns the names of the archived partitions.
+CREATE OR REPLACE FUNCTION archive_reservation_partitions(cutoff DATE)
+RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part       TEXT;
+    has_active BOOLEAN;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('reservation_partitions'));
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'reservation'::regclass
+          AND c.relname ~ '^reservation_p[0-9]{4}_[0-9]{2}$'
+          AND to_date(substr(c.relname, 14), 'YYYY_MM') + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status = ''ACTIVE'')', part) INTO has_active;
+        CONTINUE WHEN has_active;
+        EXECUTE format('ALTER TABLE reservation DETACH PARTITION %I', part);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA reservation_archive', part);
+        RETURN NEXT part;
+    END LOOP;
+END;
+$$;
+
+-- ============================================================
+-- 4. Partitions for the existing data and the next months, then copy
+-- ============================================================
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', LEAST(
+        (SELECT min(start_time) FROM reservation_unpartitioned), now()::TIMESTAMP));
+    last_month  DATE := date_trunc('month', now()) + INTERVAL '3 months';
+    m           DATE;
+BEGIN
+    FOR m IN SELECT generate_series(first_month::TIMESTAMP, last_month::TIMESTAMP, INTERVAL '1 month')::DATE LOOP
+        PERFORM create_reservation_partition(m);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO reservation (id, resource_id, user_id, start_time, end_time, status, notes,
+                         cancelled_by, cancelled_at, created_at, updated_at, series_id)
+SELECT id, resource_id, user_id, start_time, end_time, status, notes,
+       cancelled_by, cancelled_at, created_at, updated_at, series_id
+FROM reservation_unpartitioned;
+
+DROP TABLE reservation_unpartitioned;
@@ -0,0 +1,40 @@
+package dev.jesusjimenezg.kata.controller;
+
+import dev.jesusjimenezg.kata.service.ReservationConflicts;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void dataIntegrityViolation_exclusionViolation_isReportedAsOverlap() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException(new SQLException("conflicting key value", "23P01")));
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(ReservationConflicts.OVERLAP_MESSAGE, response.getBody().get("message"));
+    }
+
+    @Test
+    void dataIntegrityViolation_otherViolation_isGenericConflict() {
+        // Mentioning the constraint in the message is not enough, only the SQLSTATE counts
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("excl_reservation_overlap",
+                new SQLException("duplicate key value", "23505"));
+
+        ResponseEntity<Map<String, Object>> response = handler.handleDataIntegrityViolation(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Data integrity violation", response.getBody().get("message"));
+    }
+}
@@ -0,0 +1,268 @@
+package dev.jesusjimenezg.kata.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the plans of the hot reservation queries. Each test seeds twenty
+ * thousand reservations (in the default partition, far in the future), runs
+ * the real repository method, records the SQL and parameters it sent to the
+ * driver, and EXPLAINs exactly that statement with the same parameters. The
+ * planner keeps all its options, sequential scans included, and the plan has
+ * to read the seeded partition through the expected index. Everything runs in
+ * a transaction that is rolled back. Needs the database from
+ * {@code compose.yaml}.
+ */
+@SpringBootTest
+class ReservationQueryPlanTest {
+
+    private static final String SEEDED_PARTITION = "reservation_default";
+    private static final String OVERLAP_INDEX = "excl_reservation_overlap_default";
+    private static final LocalDateTime DAY = LocalDateTime.of(2097, 3, 10, 0, 0);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMaintenanceRepository maintenanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID resourceId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        resourceId = jdbcTemplate.queryForObject(
+                "SELECT id FROM resource WHERE active ORDER BY name LIMIT 1", UUID.class);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void existsOverlapping_usesOverlapIndex() {
+        String plan = planOf(() -> reservationRepository.existsOverlapping(resourceId,
+                DAY.withHour(9).withMinute(30), DAY.withHour(10).withMinute(30)));
+
+        assertReadsThrough(plan, OVERLAP_INDEX);
+    }
+
+    @Test
+    void existsOverlapping_prunesPartitionsEndedBeforeTheMaximumLength() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            // December ends more than Reservation.MAX_LENGTH before DAY; February does not
+            for (String month : List.of("2096-12-01", "2097-02-01")) {
+                assertTrue(jdbcTemplate.queryForObject("SELECT create_reservation_partition(CAST(? AS DATE))",
+                        Boolean.class, month));
+            }
+            String plan = planOf(() -> reservationRepository.existsOverlapping(resourceId,
+                    DAY.withHour(9).withMinute(30), DAY.withHour(10).withMinute(30)));
+
+            assertFalse(plan.contains("reservation_p2096_12"), plan);
+            assertTrue(plan.contains("reservation_p2097_02"), plan);
+        });
+    }
+
+    @Test
+    void activeIntervalsInWindow_usesOverlapIndex() {
+        String plan = planOf(() -> reservationRepository.findActiveIntervalsInWindow(resourceId,
+                DAY.withHour(9), DAY.plusDays(2).withHour(18)));
+
+        assertReadsThrough(plan, OVERLAP_INDEX);
+    }
+
+    @Test
+    void activeIntervalsInWindowForResources_usesAnIndexOfTheResource() {
+        String plan = planOf(() -> reservationRepository.findActiveIntervalsInWindowForResources(
+                List.of(resourceId, UUID.randomUUID()), DAY.withHour(9), DAY.plusDays(2).withHour(18)));
+
+        assertReadsThrough(plan, OVERLAP_INDEX, partitionIndex("idx_reservation_resource_history"));
+    }
+
+    @Test
+    void ownActive_usesActiveUserIndex() {
+        String plan = planOf(() -> reservationRepository.findOwnByStatus(userId, "ACTIVE"));
+
+        assertReadsThrough(plan, partitionIndex("idx_reservation_active_user"),
+                partitionIndex("idx_reservation_user_history"));
+    }
+
+    @Test
+    void completeEnded_usesActiveEndIndex() {
+        String plan = planOf(() -> maintenanceRepository.completeEnded(DAY.plusDays(1), DAY, 500));
+
+        assertReadsThrough(plan, partitionIndex("idx_reservation_active_end"));
+    }
+
+    /** Fails unless the plan reads the seeded partition through one of {@code indexes}. */
+    private static void assertReadsThrough(String plan, String... indexes) {
+        assertFalse(plan.contains("Seq Scan on " + SEEDED_PARTITION), plan);
+        assertTrue(Arrays.stream(indexes).anyMatch(index -> plan.contains(" on " + index)), plan);
+    }
+
+    /** Name of the seeded partition's index attached to the partitioned index {@code parent}. */
+    private String partitionIndex(String parent) {
+        return jdbcTemplate.queryForObject("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_index x ON x.indexrelid = c.oid
+                WHERE i.inhparent = CAST(? AS regclass)
+                  AND x.indrelid = CAST(? AS regclass)
+                """, String.class, parent, SEEDED_PARTITION);
+    }
+
+    /**
+     * Seeds twenty thousand one-hour reservations on one resource, the first two
+     * thousand for the test user and the rest for another one, a quarter of them
+     * ACTIVE, refreshes the statistics, runs {@code query} and returns the plan of
+     * the one statement it executed. Everything is rolled back afterwards.
+     */
+    private String planOf(Runnable query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            status.setRollbackOnly();
+            UUID crowdId = UUID.randomUUID();
+            for (UUID id : List.of(userId, crowdId)) {
+                jdbcTemplate.update("INSERT INTO app_user (id, email, password_hash) VALUES (?, ?, '-')",
+                        id, "plans-" + id + "@example.com");
+            }
+            jdbcTemplate.update("""
+                    INSERT INTO reservation (resource_id, user_id, start_time, end_time, status)
+                    SELECT ?, CASE WHEN n < 2000 THEN ? ELSE ? END,
+                           TIMESTAMP '2097-01-01 00:00' + n * INTERVAL '1 hour',
+                           TIMESTAMP '2097-01-01 01:00' + n * INTERVAL '1 hour',
+                           CASE WHEN n % 4 = 0 THEN 'ACTIVE' ELSE 'CANCELLED' END
+                    FROM generate_series(0, 19999) AS n
+                    """, resourceId, userId, crowdId);
+            jdbcTemplate.execute("ANALYZE reservation");
+
+            List<RecordedStatement> statements = StatementRecorder.record(query);
+            assertEquals(1, statements.size(), statements::toString);
+            RecordedStatement statement = statements.get(0);
+            List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + statement.sql(), String.class,
+                    statement.parameters().toArray());
+            return String.join("\n", lines);
+        });
+    }
+
+    record RecordedStatement(String sql, List<Object> parameters) {
+    }
+
+    /**
+     * Wraps the application's {@link DataSource} so the statements that reach the
+     * driver, with their parameters, can be recorded. Records nothing outside
+     * {@link StatementRecorder#record(Runnable)}.
+     */
+    @TestConfiguration
+    static class StatementRecorder {
+
+        private static final List<RecordedStatement> recorded = new CopyOnWriteArrayList<>();
+        private static volatile boolean recording;
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+                }
+            };
+        }
+
+        static List<RecordedStatement> record(Runnable work) {
+            recorded.clear();
+            recording = true;
+            try {
+                work.run();
+            } finally {
+                recording = false;
+            }
+            return List.copyOf(recorded);
+        }
+
+        private static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrap(connection) : result);
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                            ? wrap(statement, (String) args[0])
+                            : result);
+        }
+
+        private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            parameters.put(index, name.equals("setNull") ? null : args[1]);
+                        } else if (name.equals("clearParameters")) {
+                            parameters.clear();
+                        } else if (name.startsWith("execute") && recording) {
+                            recorded.add(new RecordedStatement(sql, new ArrayList<>(parameters.values())));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultWrapper wrapper) {
+            InvocationHandler handler = (proxy, method, args) ->
+                    wrapper.wrap(method, args, invoke(target, method, args));
+            // Keeps close() reachable, so the pool still shuts down with the context
+            Class<?>[] interfaces = target instanceof AutoCloseable
+                    ? new Class<?>[] {type, AutoCloseable.class}
+                    : new Class<?>[] {type};
+            return type.cast(Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), interfaces, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args)
+                throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        private interface ResultWrapper {
+            Object wrap(Method method, Object[] args, Object result);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package dev.jesusjimenezg.kata.repository;
+
+import dev.jesusjimenezg.kata.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the resource search specifications, and with them the search columns
+ * of {@code ResourceSearchDocument} and the functions registered by
+ * {@link PostgresFunctionContributor}, against PostgreSQL. Seeds its own
+ * resources, around a word no seeded data uses, inside a transaction that is
+ * rolled back. Needs the database from {@code compose.yaml}.
+ */
+@SpringBootTest
+class ResourceSearchTest {
+
+    private static final String WORD = "holografo";
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void matchesText_ranksNameMatchesAboveDescriptionMatches() {
+        inSeededTransaction(seeded -> {
+            List<UUID> found = search(seeded, ResourceSpecification.matchesText(WORD)
+                    .and(ResourceSpecification.isActive())
+                    .and(ResourceSpecification.orderedByRelevance(WORD)));
+
+            assertEquals(List.of(seeded.inName(), seeded.inDescription()), found);
+        });
+    }
+
+    @Test
+    void matchesText_toleratesTypos() {
+        inSeededTransaction(seeded -> {
+            String typo = "holgrafo";
+            List<UUID> found = search(seeded, ResourceSpecification.matchesText(typo)
+                    .and(ResourceSpecification.isActive())
+                    .and(ResourceSpecification.orderedByRelevance(typo)));
+
+            assertEquals(List.of(seeded.inName(), seeded.inDescription()), found);
+        });
+    }
+
+    @Test
+    void matchesText_composesWithVisibilityAndActiveFilters() {
+        inSeededTransaction(seeded -> {
+            List<UUID> unfiltered = search(seeded, ResourceSpecification.matchesText(WORD)
+                    .and(ResourceSpecification.orderedByName(false, null)));
+            List<UUID> filtered = search(seeded, ResourceSpecification.isVisibleTo(seeded.viewerId())
+                    .and(ResourceSpecification.isActive())
+                    .and(ResourceSpecification.matchesText(WORD))
+                    .and(ResourceSpecification.orderedByName(false, null)));
+
+            assertEquals(List.of(seeded.forbidden(), seeded.inactive(), seeded.inName(), seeded.inDescription()),
+                    unfiltered);
+            assertEquals(List.of(seeded.inName(), seeded.inDescription()), filtered);
+        });
+    }
+
+    @Test
+    void matchesText_treatsLikeWildcardsLiterally() {
+        inSeededTransaction(seeded -> {
+            String tag = UUID.randomUUID().toString().substring(0, 8);
+            UUID percent = resource("Aforo al 50% " + tag, null, "ROOM", true);
+            UUID underscore = resource("Sala_este " + tag, null, "ROOM", true);
+            List<UUID> candidates = List.of(seeded.inName(), seeded.inDescription(), seeded.unrelated(), percent,
+                    underscore);
+
+            for (String wildcard : List.of("%", "_")) {
+                List<UUID> found = resourceRepository.findAll(ResourceSpecification.matchesText(wildcard)).stream()
+                        .map(Resource::getId)
+                        .filter(candidates::contains)
+                        .toList();
+
+                assertEquals(List.of(wildcard.equals("%") ? percent : underscore), found, wildcard);
+            }
+        });
+    }
+
+    /** IDs of the seeded resources the specification returns, in its order. */
+    private List<UUID> search(Seeded seeded, Specification<Resource> specification) {
+        return resourceRepository.findAll(specification).stream()
+                .map(Resource::getId)
+                .filter(seeded.all()::contains)
+                .toList();
+    }
+
+    /**
+     * Seeds a USER (who can only see rooms) and five resources: matching in the
+     * name, matching in the description, inactive, of a type the user cannot
+     * see, and not matching at all. Runs {@code test} and rolls everything back.
+     */
+    private void inSeededTransaction(Consumer<Seeded> test) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            String tag = UUID.randomUUID().toString().substring(0, 8);
+            UUID viewerId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO app_user (id, email, password_hash) VALUES (?, ?, '-')",
+                    viewerId, "search-" + viewerId + "@example.com");
+            jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) SELECT ?, id FROM role WHERE name = 'USER'",
+                    viewerId);
+
+            Seeded seeded = new Seeded(viewerId,
+                    resource("Holografo sala norte " + tag, "Sala de proyecciones", "ROOM", true),
+                    resource("Sala sur " + tag, "Incluye un holografo portatil", "ROOM", true),
+                    resource("Holografo retirado " + tag, null, "ROOM", false),
+                    resource("Holografo privado " + tag, null, "VIP_ROOM", true),
+                    resource("Sala oeste " + tag, "Pizarra y mesa redonda", "ROOM", true));
+            test.accept(seeded);
+        });
+    }
+
+    private UUID resource(String name, String description, String type, boolean active) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO resource (name, description, resource_type_id, active)
+                SELECT ?, ?, id, ? FROM resource_type WHERE name = ?
+                RETURNING id
+                """, UUID.class, name, description, active, type);
+    }
+
+    private record Seeded(UUID viewerId, UUID inName, UUID inDescription, UUID inactive, UUID forbidden,
+            UUID unrelated) {
+
+        List<UUID> all() {
+            return List.of(inName, inDescription, inactive, forbidden, unrelated);
+        }
+    }
+}
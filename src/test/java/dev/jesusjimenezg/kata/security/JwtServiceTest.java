@@ -0,0 +1,109 @@
+package dev.jesusjimenezg.kata.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    static final String SECRET = "dGhpcyBpcyBhIHNhbXBsZSBiYXNlNjQgZW5jb2RlZCBzZWNyZXQga2V5IGZvciBkZXZlbG9wbWVudA==";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 900_000, 100);
+        userDetails = new User("john@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void verify_validToken_returnsClaims() {
+        String token = jwtService.generateAccessToken(userDetails);
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals("john@example.com", verified.subject());
+        assertEquals(List.of("ROLE_USER"), verified.roles());
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+    }
+
+    @Test
+    void generateAccessToken_authenticatedUser_embedsUserId() {
+        UUID id = UUID.randomUUID();
+        String token = jwtService.generateAccessToken(
+                new AuthenticatedUser(id, "john@example.com", "", true, userDetails.getAuthorities()));
+
+        assertEquals(id, jwtService.verify(token).userId());
+        assertNull(jwtService.verify(jwtService.generateAccessToken(userDetails)).userId());
+    }
+
+    @Test
+    void generateAccessToken_keepsIssueTimeToTheMillisecond() {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        Instant issuedAt = jwtService.verify(jwtService.generateAccessToken(userDetails)).issuedAt();
+
+        assertFalse(issuedAt.isBefore(before));
+        assertFalse(issuedAt.isAfter(Instant.now()));
+    }
+
+    @Test
+    void verify_sameTokenTwice_parsesOnce() {
+        String token = jwtService.generateAccessToken(userDetails);
+
+        VerifiedToken first = jwtService.verify(token);
+        VerifiedToken second = jwtService.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwtService.getClaimsCache().missCount());
+        assertEquals(1, jwtService.getClaimsCache().hitCount());
+    }
+
+    @Test
+    void verify_tamperedToken_throwsAndIsNotCached() {
+        String token = jwtService.generateAccessToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+        assertEquals(0, jwtService.getClaimsCache().size());
+    }
+
+    @Test
+    void verify_expiredToken_throwsAndIsNotCached() {
+        JwtService expiringService = new JwtService(SECRET, -1_000, 100);
+        String token = expiringService.generateAccessToken(userDetails);
+
+        assertThrows(ExpiredJwtException.class, () -> expiringService.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> expiringService.verify(token));
+        assertEquals(0, expiringService.getClaimsCache().size());
+    }
+
+    @Test
+    void verify_cacheFull_staysBounded() {
+        JwtService smallCache = new JwtService(SECRET, 900_000, 10);
+
+        for (int i = 0; i < 50; i++) {
+            smallCache.verify(smallCache.generateAccessToken(
+                    new User("user" + i + "@example.com", "", userDetails.getAuthorities())));
+        }
+
+        assertTrue(smallCache.getClaimsCache().size() <= 10);
+    }
+}
@@ -0,0 +1,66 @@
+package dev.jesusjimenezg.kata.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-request CPU cost of token verification: the previous filter flow (four
+ * full parses, each with a freshly built parser) against {@link JwtService#verify}
+ * with a warm claims cache. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class JwtVerificationBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void verifiedClaimsCache_savesParsingWork() {
+        JwtService jwtService = new JwtService(JwtServiceTest.SECRET, 900_000, 10_000);
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceTest.SECRET));
+        String token = jwtService.generateAccessToken(
+                new User("bench@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_EMPLOYEE"))));
+
+        measure(WARMUP, () -> legacyRequest(key, token));
+        long legacyNs = measure(ITERATIONS, () -> legacyRequest(key, token));
+
+        measure(WARMUP, () -> jwtService.verify(token));
+        long cachedNs = measure(ITERATIONS, () -> jwtService.verify(token));
+
+        System.out.printf("JWT verification per request: legacy %,d ns, cached %,d ns (%.1fx), hits=%d misses=%d%n",
+                legacyNs, cachedNs, (double) legacyNs / cachedNs,
+                jwtService.getClaimsCache().hitCount(), jwtService.getClaimsCache().missCount());
+        assertTrue(cachedNs < legacyNs);
+    }
+
+    /** extractUsername + isTokenValid (username + expiry) + extractRoles. */
+    private static Object legacyRequest(SecretKey key, String token) {
+        for (int i = 0; i < 3; i++) {
+            parse(key, token);
+        }
+        return parse(key, token).get("roles", List.class);
+    }
+
+    private static Claims parse(SecretKey key, String token) {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static long measure(int iterations, Runnable body) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body.run();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.jesusjimenezg.kata.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserStatusCacheTest {
+
+    private final UserStatusCache cache = new UserStatusCache(900_000);
+
+    @Test
+    void isCurrent_unchangedUser_acceptsAnyToken() {
+        assertTrue(cache.isCurrent("john@example.com", Instant.now().minusSeconds(60)));
+    }
+
+    @Test
+    void isCurrent_tokenIssuedEarlierInTheSameSecond_isRejected() {
+        Instant issued = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        cache.markChanged("john@example.com");
+
+        assertFalse(cache.isCurrent("john@example.com", issued));
+        // A second-precision iat of the same second may predate the change too
+        assertFalse(cache.isCurrent("john@example.com", issued.truncatedTo(ChronoUnit.SECONDS)));
+    }
+
+    @Test
+    void isCurrent_tokenIssuedAfterTheChange_isAccepted() throws InterruptedException {
+        cache.markChanged("john@example.com");
+        Thread.sleep(2);
+
+        assertTrue(cache.isCurrent("john@example.com", Instant.now()));
+        assertTrue(cache.isCurrent("jane@example.com", Instant.now().minusSeconds(60)));
+    }
+}
@@ -0,0 +1,143 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.AvailabilitySlot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityCacheTest {
+
+    private static final UUID RESOURCE = UUID.randomUUID();
+    private static final LocalDateTime START = LocalDateTime.of(2026, 2, 12, 8, 0);
+    private static final LocalDateTime END = START.plusHours(10);
+    private static final List<AvailabilitySlot> SLOTS = List.of(new AvailabilitySlot(START, END, true));
+
+    private final ReservationVersionTracker versions = new ReservationVersionTracker();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_repeatedWindow_loadsOnce() {
+        AvailabilityCache cache = new AvailabilityCache(versions, 100, 300);
+
+        cache.get(RESOURCE, START, END, this::load);
+        List<AvailabilitySlot> cached = cache.get(RESOURCE, START, END, this::load);
+
+        assertEquals(SLOTS, cached);
+        assertEquals(1, loads.get());
+        assertEquals(0.5, cache.hitRatio());
+    }
+
+    @Test
+    void get_afterVersionBump_reloads() {
+        AvailabilityCache cache = new AvailabilityCache(versions, 100, 300);
+
+        cache.get(RESOURCE, START, END, this::load);
+        versions.bump(RESOURCE);
+        cache.get(RESOURCE, START, END, this::load);
+        versions.bump(UUID.randomUUID());
+        cache.get(RESOURCE, START, END, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_bumpDuringLoad_isNotServedAsFresh() {
+        AvailabilityCache cache = new AvailabilityCache(versions, 100, 300);
+
+        cache.get(RESOURCE, START, END, () -> {
+            // A write commits while the slots are being computed
+            versions.bump(RESOURCE);
+            return load();
+        });
+        cache.get(RESOURCE, START, END, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_expiredEntry_reloads() {
+        AvailabilityCache cache = new AvailabilityCache(versions, 100, 0);
+
+        cache.get(RESOURCE, START, END, this::load);
+        cache.get(RESOURCE, START, END, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_failedLoad_isNotCached() {
+        AvailabilityCache cache = new AvailabilityCache(versions, 100, 300);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(RESOURCE, START, END, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        cache.get(RESOURCE, START, END, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_concurrentMisses_shareOneLoad() throws Exception {
+        AvailabilityCache cache = new AvailabilityCache(versions, 100, 300);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<List<AvailabilitySlot>> first = pool.submit(() -> cache.get(RESOURCE, START, END, () -> {
+                loading.countDown();
+                await(release);
+                return load();
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            List<Future<List<AvailabilitySlot>>> waiters = List.of(
+                    pool.submit(() -> cache.get(RESOURCE, START, END, this::load)),
+                    pool.submit(() -> cache.get(RESOURCE, START, END, this::load)));
+            release.countDown();
+
+            assertEquals(SLOTS, first.get(5, TimeUnit.SECONDS));
+            for (Future<List<AvailabilitySlot>> waiter : waiters) {
+                assertEquals(SLOTS, waiter.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_full_evictsToStayBounded() {
+        AvailabilityCache cache = new AvailabilityCache(versions, 10, 300);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get(RESOURCE, START, END.plusMinutes(i), this::load);
+        }
+
+        assertTrue(cache.size() <= 10);
+    }
+
+    private List<AvailabilitySlot> load() {
+        loads.incrementAndGet();
+        return SLOTS;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.SlotSuggestion;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.model.ResourceType;
+import dev.jesusjimenezg.kata.repository.ReservationInterval;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySearchServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2096, 2, 13, 0, 0);
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ResourcePermissionService permissionService;
+
+    @Mock
+    private ReservationIntervalIndex intervalIndex;
+
+    private AvailabilitySearchService searchService;
+    private Resource room101;
+    private Resource room102;
+    private UserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new AvailabilitySearchService(resourceRepository, reservationRepository, permissionService,
+                intervalIndex, 1);
+        ResourceType type = new ResourceType("ROOM", "Room");
+        type.setId(1);
+        room101 = resource("Sala 101", type);
+        room102 = resource("Sala 102", type);
+        principal = new User("john@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void findNextAvailable_mergesGapsOfEveryResourceInStartOrder() {
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1))).thenReturn(List.of(room101, room102));
+        when(reservationRepository.findActiveIntervalsInWindowForResources(anyList(), eq(at(8, 0)),
+                eq(at(8, 0).plusDays(1)))).thenReturn(List.of(
+                        new ReservationInterval(room101.getId(), at(7, 0), at(9, 0)),
+                        new ReservationInterval(room101.getId(), at(9, 30), at(11, 0)),
+                        new ReservationInterval(room102.getId(), at(8, 0), at(10, 0))));
+
+        List<SlotSuggestion> result = searchService.findNextAvailable(1, Duration.ofHours(1), at(8, 0), 3,
+                principal);
+
+        // Room 101's 9:00-9:30 gap is too short for one hour
+        assertEquals(List.of(
+                new SlotSuggestion(room102.getId(), "Sala 102", at(10, 0), at(11, 0)),
+                new SlotSuggestion(room101.getId(), "Sala 101", at(11, 0), at(12, 0))), result);
+    }
+
+    @Test
+    void findNextAvailable_stopsAtLimitAndBreaksTiesByName() {
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1))).thenReturn(List.of(room102, room101));
+        when(intervalIndex.isReady()).thenReturn(true);
+        when(intervalIndex.findInWindow(eq(room101.getId()), eq(at(8, 0)), eq(at(8, 0).plusDays(1))))
+                .thenReturn(List.of(new ReservationInterval(room101.getId(), at(12, 0), at(13, 0))));
+        when(intervalIndex.findInWindow(eq(room102.getId()), eq(at(8, 0)), eq(at(8, 0).plusDays(1))))
+                .thenReturn(List.of());
+
+        List<SlotSuggestion> result = searchService.findNextAvailable(1, Duration.ofHours(2), at(8, 0), 2,
+                principal);
+
+        assertEquals(List.of(
+                new SlotSuggestion(room101.getId(), "Sala 101", at(8, 0), at(10, 0)),
+                new SlotSuggestion(room102.getId(), "Sala 102", at(8, 0), at(10, 0))), result);
+        verify(reservationRepository, never()).findActiveIntervalsInWindowForResources(anyList(), eq(at(8, 0)),
+                eq(at(8, 0).plusDays(1)));
+    }
+
+    @Test
+    void findNextAvailable_readsFurtherWindowsOnlyUntilLimitIsReached() {
+        AvailabilitySearchService threeDays = new AvailabilitySearchService(resourceRepository,
+                reservationRepository, permissionService, intervalIndex, 3);
+        LocalDateTime nextDay = at(8, 0).plusDays(1);
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1))).thenReturn(List.of(room101));
+        // Busy from the start until the second window, where the interval is returned again
+        ReservationInterval longBooking = new ReservationInterval(room101.getId(), at(7, 0), nextDay.plusHours(2));
+        when(reservationRepository.findActiveIntervalsInWindowForResources(List.of(room101.getId()), at(8, 0),
+                nextDay)).thenReturn(List.of(longBooking));
+        when(reservationRepository.findActiveIntervalsInWindowForResources(List.of(room101.getId()), nextDay,
+                nextDay.plusDays(1))).thenReturn(List.of(longBooking,
+                        new ReservationInterval(room101.getId(), nextDay.plusHours(3), nextDay.plusHours(4))));
+
+        List<SlotSuggestion> result = threeDays.findNextAvailable(1, Duration.ofHours(1), at(8, 0), 2, principal);
+
+        assertEquals(List.of(
+                new SlotSuggestion(room101.getId(), "Sala 101", nextDay.plusHours(2), nextDay.plusHours(3)),
+                new SlotSuggestion(room101.getId(), "Sala 101", nextDay.plusHours(4), nextDay.plusHours(5))),
+                result);
+        verify(reservationRepository, never()).findActiveIntervalsInWindowForResources(anyList(),
+                eq(nextDay.plusDays(1)), any());
+    }
+
+    @Test
+    void findNextAvailable_durationBeyondHorizon_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.findNextAvailable(1, Duration.ofDays(2), at(8, 0), 5, principal));
+    }
+
+    @Test
+    void findNextAvailable_forbiddenType_throwsAccessDenied() {
+        doThrow(new AccessDeniedException("denied")).when(permissionService).checkAccess(principal, 1);
+
+        assertThrows(AccessDeniedException.class,
+                () -> searchService.findNextAvailable(1, Duration.ofHours(1), at(8, 0), 5, principal));
+        verify(resourceRepository, never()).findByActiveTrueAndResourceTypeIdIn(anyList());
+    }
+
+    private static Resource resource(String name, ResourceType type) {
+        Resource resource = new Resource();
+        resource.setId(UUID.randomUUID());
+        resource.setName(name);
+        resource.setResourceType(type);
+        resource.setActive(true);
+        return resource;
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.withHour(hour).withMinute(minute);
+    }
+}
@@ -0,0 +1,127 @@
+package dev.jesusjimenezg.kata.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogResponseCacheTest {
+
+    private static final long[] ROOMS = {0b10};
+    private static final long[] VEHICLES = {0b100};
+
+    @Mock
+    private ResourceCatalog catalog;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private CatalogResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(catalog, JsonMapper.builder().build(), 100);
+    }
+
+    @Test
+    void get_samePermissionSet_sharesOneBody() {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.version()).thenReturn(1L);
+
+        SerializedResponse first = cache.get("resources", "active=true", ROOMS, this::load);
+        SerializedResponse second = cache.get("resources", "active=true", new long[] {0b10}, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("[\"a\",\"b\"]", new String(first.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_otherPermissionSetOrParams_loadsAgain() {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.version()).thenReturn(1L);
+
+        SerializedResponse rooms = cache.get("resources", "", ROOMS, this::load);
+        SerializedResponse vehicles = cache.get("resources", "", VEHICLES, () -> List.of("c"));
+        cache.get("resources", "active=true", ROOMS, this::load);
+
+        assertEquals(2, loads.get());
+        assertNotEquals(rooms.etag(), vehicles.etag());
+    }
+
+    @Test
+    void get_afterCatalogChange_reloadsWithNewEtag() {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.version()).thenReturn(1L, 2L);
+
+        SerializedResponse before = cache.get("resources", "", ROOMS, this::load);
+        SerializedResponse after = cache.get("resources", "", ROOMS, () -> List.of("a", "b", "c"));
+
+        assertEquals(1, loads.get());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void get_sameBodyOnAnotherInstance_hasSameEtag() {
+        ResourceCatalog otherCatalog = mock(ResourceCatalog.class);
+        when(otherCatalog.isReady()).thenReturn(true);
+        when(otherCatalog.version()).thenReturn(7L);
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.version()).thenReturn(1L);
+        CatalogResponseCache other = new CatalogResponseCache(otherCatalog, JsonMapper.builder().build(), 100);
+
+        // Versions count independently per instance (and restart from scratch): only the body counts
+        SerializedResponse here = cache.get("resources", "", ROOMS, this::load);
+        SerializedResponse there = other.get("resources", "", ROOMS, this::load);
+
+        assertEquals(here.etag(), there.etag());
+    }
+
+    @Test
+    void get_catalogNotReady_serializesWithoutEtag() {
+        when(catalog.isReady()).thenReturn(false);
+
+        cache.get("resources", "", ROOMS, this::load);
+        SerializedResponse response = cache.get("resources", "", ROOMS, this::load);
+
+        assertEquals(2, loads.get());
+        assertNull(response.etag());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_largeBody_isAlsoGzipped() throws IOException {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.version()).thenReturn(1L);
+        List<String> large = Collections.nCopies(CatalogResponseCache.GZIP_MIN_BYTES, "sala");
+
+        SerializedResponse response = cache.get("resources", "", ROOMS, () -> large);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.gzip()))) {
+            assertArrayEquals(response.json(), in.readAllBytes());
+        }
+        assertEquals(response.etag().replace("\"", "").concat("-gzip"), response.gzipEtag().replace("\"", ""));
+    }
+
+    private List<String> load() {
+        loads.incrementAndGet();
+        return List.of("a", "b");
+    }
+}
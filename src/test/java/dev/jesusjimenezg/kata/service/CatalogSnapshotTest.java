@@ -0,0 +1,134 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import dev.jesusjimenezg.kata.dto.ResourceTypeResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotTest {
+
+    private static final ResourceTypeResponse ROOM = new ResourceTypeResponse(1, "ROOM", null);
+    private static final ResourceTypeResponse VEHICLE = new ResourceTypeResponse(70, "VEHICLE", null);
+    private static final long[] ALL_TYPES = {1L << 1, 1L << (70 - 64)};
+    private static final long[] ROOMS_ONLY = {1L << 1};
+
+    private final ResourceResponse sala102 = resource("Sala 102", "Sala de reuniones estándar", ROOM, "Piso 1", true);
+    private final ResourceResponse sala101 = resource("Sala 101", "Sala de reuniones pequeña", ROOM, "Piso 1", true);
+    private final ResourceResponse auditorio = resource("Auditorio", "Eventos", ROOM, "Planta baja", false);
+    private final ResourceResponse furgoneta = resource("Furgoneta", "Reparto", VEHICLE, "Garaje sala B", true);
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(List.of(sala102, sala101, auditorio, furgoneta), 7);
+
+    @Test
+    void list_ordersByNameAndFiltersByPermission() {
+        assertEquals(List.of(auditorio, furgoneta, sala101, sala102), snapshot.list(ALL_TYPES, false, null));
+        assertEquals(List.of(auditorio, sala101, sala102), snapshot.list(ROOMS_ONLY, false, null));
+    }
+
+    @Test
+    void list_activeAndTypeFilters() {
+        assertEquals(List.of(sala101, sala102), snapshot.list(ALL_TYPES, true, 1));
+        assertEquals(List.of(furgoneta), snapshot.list(ALL_TYPES, false, 70));
+        assertEquals(List.of(), snapshot.list(ROOMS_ONLY, false, 70));
+    }
+
+    @Test
+    void search_substring_ranksNameMatchesFirst() {
+        assertEquals(List.of(sala101, sala102, furgoneta), snapshot.search("SALA", ALL_TYPES, false, null));
+    }
+
+    @Test
+    void search_toleratesTypos() {
+        assertEquals(List.of(sala101, sala102), snapshot.search("reunones", ALL_TYPES, false, null));
+    }
+
+    @Test
+    void search_shortSubstring() {
+        assertEquals(List.of(sala101), snapshot.search("01", ALL_TYPES, false, null));
+    }
+
+    @Test
+    void search_respectsFilters() {
+        assertEquals(List.of(sala101, sala102), snapshot.search("sala", ROOMS_ONLY, true, null));
+        assertEquals(List.of(), snapshot.search("eventos", ALL_TYPES, true, null));
+    }
+
+    @Test
+    void page_byName_walksBothWaysFromTheCursor() {
+        assertEquals(List.of(auditorio, furgoneta),
+                snapshot.page(ALL_TYPES, false, null, ResourceSort.NAME, null, 2));
+
+        ResourceCursor afterFurgoneta = ResourceCursor.after(ResourceSort.NAME, furgoneta, 2);
+        assertEquals(List.of(sala101, sala102),
+                snapshot.page(ALL_TYPES, false, null, ResourceSort.NAME, afterFurgoneta, 5));
+
+        ResourceCursor beforeSala101 = ResourceCursor.after(ResourceSort.NAME_DESC, sala101, 2);
+        assertEquals(List.of(furgoneta, auditorio),
+                snapshot.page(ALL_TYPES, false, null, ResourceSort.NAME_DESC, beforeSala101, 5));
+    }
+
+    @Test
+    void page_skipsFilteredOutResources() {
+        ResourceCursor afterAuditorio = ResourceCursor.after(ResourceSort.NAME, auditorio, 1);
+
+        assertEquals(List.of(sala101, sala102),
+                snapshot.page(ROOMS_ONLY, true, null, ResourceSort.NAME, afterAuditorio, 5));
+    }
+
+    @Test
+    void page_byCreatedAt_tiesBrokenById() {
+        LocalDateTime monday = LocalDateTime.of(2026, 2, 2, 9, 0);
+        ResourceResponse oldest = resource("Sala C", null, ROOM, null, true, monday);
+        ResourceResponse tied1 = resource("Sala A", null, ROOM, null, true, monday.plusDays(1));
+        ResourceResponse tied2 = resource("Sala B", null, ROOM, null, true, monday.plusDays(1));
+        CatalogSnapshot byAge = CatalogSnapshot.of(List.of(tied1, oldest, tied2), 1);
+        List<ResourceResponse> tied = tied1.id().toString().compareTo(tied2.id().toString()) < 0
+                ? List.of(tied1, tied2)
+                : List.of(tied2, tied1);
+
+        List<ResourceResponse> first = byAge.page(ALL_TYPES, false, null, ResourceSort.CREATED_AT, null, 2);
+        assertEquals(List.of(oldest, tied.get(0)), first);
+
+        ResourceCursor cursor = ResourceCursor.decode(
+                ResourceCursor.after(ResourceSort.CREATED_AT, first.get(1), 2).encode(), ResourceSort.CREATED_AT);
+        assertEquals(List.of(tied.get(1)), byAge.page(ALL_TYPES, false, null, ResourceSort.CREATED_AT, cursor, 2));
+        assertEquals(List.of(tied.get(1), tied.get(0), oldest),
+                byAge.page(ALL_TYPES, false, null, ResourceSort.CREATED_AT_DESC, null, 5));
+    }
+
+    @Test
+    void cursor_roundTripsAndRejectsAnotherSort() {
+        ResourceCursor cursor = ResourceCursor.after(ResourceSort.NAME,
+                resource("Sala | B", null, ROOM, null, true), 1);
+
+        assertEquals(cursor, ResourceCursor.decode(cursor.encode(), ResourceSort.NAME));
+        assertThrows(IllegalArgumentException.class,
+                () -> ResourceCursor.decode(cursor.encode(), ResourceSort.CREATED_AT));
+        assertThrows(IllegalArgumentException.class, () -> ResourceCursor.decode("not-a-cursor", ResourceSort.NAME));
+    }
+
+    @Test
+    void get_byId() {
+        assertSame(furgoneta, snapshot.get(furgoneta.id()));
+        assertNull(snapshot.get(UUID.randomUUID()));
+        assertEquals(7, snapshot.version());
+    }
+
+    private static ResourceResponse resource(String name, String description, ResourceTypeResponse type,
+            String location, boolean active) {
+        return resource(name, description, type, location, active, LocalDateTime.of(2026, 2, 1, 9, 0));
+    }
+
+    private static ResourceResponse resource(String name, String description, ResourceTypeResponse type,
+            String location, boolean active, LocalDateTime createdAt) {
+        return new ResourceResponse(UUID.randomUUID(), name, description, type, location, active, createdAt,
+                createdAt);
+    }
+}
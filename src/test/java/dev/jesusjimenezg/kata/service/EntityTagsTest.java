@@ -0,0 +1,163 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import dev.jesusjimenezg.kata.dto.ResourceTypeResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EntityTagsTest {
+
+    private static final UUID RESOURCE = UUID.randomUUID();
+
+    @Mock
+    private ResourceCatalog catalog;
+
+    @Mock
+    private ResourcePermissionService permissionService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    private final ReservationVersionTracker versions = new ReservationVersionTracker();
+    private final UserDetails john = user("john@example.com");
+    private final UserDetails jane = user("jane@example.com");
+    private final UUID johnId = UUID.randomUUID();
+    private final UUID janeId = UUID.randomUUID();
+    private EntityTags tags;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        tags = new EntityTags(catalog, versions, permissionService, currentUserService, true);
+        lenient().when(catalog.isReady()).thenReturn(true);
+        lenient().when(catalog.version()).thenReturn(1L);
+        lenient().when(permissionService.getAllowedResourceTypeMask(any())).thenReturn(new long[] {0b10});
+        lenient().when(currentUserService.idOf(john)).thenReturn(johnId);
+        lenient().when(currentUserService.idOf(jane)).thenReturn(janeId);
+        snapshot = CatalogSnapshot.of(List.of(resource(RESOURCE)), 1);
+        lenient().when(catalog.snapshot()).thenAnswer(invocation -> snapshot);
+    }
+
+    @Test
+    void resourceReservations_stableUntilThatResourceChanges() {
+        String before = tags.resourceReservations(RESOURCE, john);
+        assertTrue(before.startsWith("W/\""));
+        assertEquals(before, tags.resourceReservations(RESOURCE, john));
+
+        versions.bump(UUID.randomUUID());
+        assertEquals(before, tags.resourceReservations(RESOURCE, john));
+
+        versions.bump(RESOURCE);
+        assertNotEquals(before, tags.resourceReservations(RESOURCE, john));
+    }
+
+    @Test
+    void ownReservations_onlyChangeWithTheCallersReservations() {
+        String johns = tags.ownReservations(john);
+        String janes = tags.ownReservations(jane);
+        assertNotEquals(johns, janes);
+
+        versions.bumpUser(janeId);
+        assertEquals(johns, tags.ownReservations(john));
+        assertNotEquals(janes, tags.ownReservations(jane));
+    }
+
+    @Test
+    void reservations_changeWithAnyResource() {
+        String before = tags.reservations(john);
+
+        versions.bump(UUID.randomUUID());
+
+        assertNotEquals(before, tags.reservations(john));
+    }
+
+    @Test
+    void resource_changesWithCatalogVersionAndPermissions() {
+        String before = tags.resource(RESOURCE, john);
+        assertEquals(before, tags.resource(RESOURCE, jane));
+
+        when(catalog.version()).thenReturn(2L);
+        String afterWrite = tags.resource(RESOURCE, john);
+        assertNotEquals(before, afterWrite);
+
+        when(permissionService.getAllowedResourceTypeMask(jane)).thenReturn(new long[] {0b110});
+        assertNotEquals(afterWrite, tags.resource(RESOURCE, jane));
+    }
+
+    @Test
+    void singleEntityTags_differPerEntity() {
+        UUID other = UUID.randomUUID();
+        snapshot = CatalogSnapshot.of(List.of(resource(RESOURCE), resource(other)), List.of(1, 2), 1);
+
+        assertNotEquals(tags.resource(RESOURCE, john), tags.resource(other, john));
+        assertNotEquals(tags.resourceReservations(RESOURCE, john), tags.resourceReservations(other, john));
+        assertNotEquals(tags.resourceType(1, john), tags.resourceType(2, john));
+        assertNotEquals(tags.reservation(UUID.randomUUID(), john), tags.reservation(UUID.randomUUID(), john));
+    }
+
+    @Test
+    void singleEntityTags_checkAccessBeforeTagging() {
+        doThrow(new AccessDeniedException("denied")).when(permissionService).checkAccess(jane, 1);
+
+        assertThrows(AccessDeniedException.class, () -> tags.resource(RESOURCE, jane));
+        assertThrows(AccessDeniedException.class, () -> tags.resourceReservations(RESOURCE, jane));
+        assertThrows(AccessDeniedException.class, () -> tags.resourceType(1, jane));
+    }
+
+    @Test
+    void singleEntityTags_noTagForEntitiesOutsideTheCatalog() {
+        assertNull(tags.resource(UUID.randomUUID(), john));
+        assertNull(tags.resourceReservations(UUID.randomUUID(), john));
+        assertNull(tags.resourceType(99, john));
+    }
+
+    @Test
+    void noTag_withoutCatalogOrWhenDisabled() {
+        when(catalog.isReady()).thenReturn(false);
+        assertNull(tags.resource(RESOURCE, john));
+        assertNull(tags.ownReservations(john));
+
+        when(catalog.isReady()).thenReturn(true);
+        EntityTags disabled = new EntityTags(catalog, versions, permissionService, currentUserService, false);
+        assertNull(disabled.resourceReservations(RESOURCE, john));
+        assertNull(disabled.reservations(john));
+    }
+
+    @Test
+    void tags_differBetweenInstances() {
+        EntityTags other = new EntityTags(catalog, versions, permissionService, currentUserService, true);
+
+        assertNotEquals(tags.reservations(john), other.reservations(john));
+    }
+
+    private static ResourceResponse resource(UUID id) {
+        return new ResourceResponse(id, "Sala " + id, null, new ResourceTypeResponse(1, "ROOM", null), null, true,
+                LocalDateTime.of(2026, 1, 1, 9, 0), null);
+    }
+
+    private static UserDetails user(String email) {
+        return new User(email, "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
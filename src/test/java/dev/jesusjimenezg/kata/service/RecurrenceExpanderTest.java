@@ -0,0 +1,62 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.RecurrenceRule;
+import dev.jesusjimenezg.kata.dto.RecurrenceRule.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecurrenceExpanderTest {
+
+    // A Wednesday
+    private static final LocalDateTime FIRST = LocalDateTime.of(2026, 2, 18, 9, 0);
+
+    @Test
+    void daily_withCountAndInterval() {
+        List<LocalDateTime> starts = RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.DAILY, 2, null, null, 3), 100);
+
+        assertEquals(List.of(FIRST, FIRST.plusDays(2), FIRST.plusDays(4)), starts);
+    }
+
+    @Test
+    void weekly_byWeekday_untilIsInclusive() {
+        List<LocalDateTime> starts = RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.WEEKLY, null, Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+                        LocalDate.of(2026, 2, 25), null),
+                100);
+
+        // Monday 16th is before the first occurrence and is skipped
+        assertEquals(List.of(
+                FIRST,
+                LocalDateTime.of(2026, 2, 23, 9, 0),
+                LocalDateTime.of(2026, 2, 25, 9, 0)), starts);
+    }
+
+    @Test
+    void weekly_defaultsToWeekdayOfFirstOccurrence() {
+        List<LocalDateTime> starts = RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.WEEKLY, 2, null, null, 2), 100);
+
+        assertEquals(List.of(FIRST, FIRST.plusWeeks(2)), starts);
+    }
+
+    @Test
+    void invalidRules_throwException() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.DAILY, null, null, null, null), 100));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.DAILY, null, Set.of(DayOfWeek.MONDAY), null, 3), 100));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.DAILY, null, null, null, 101), 100));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceExpander.expand(FIRST,
+                new RecurrenceRule(Frequency.DAILY, null, null, LocalDate.of(2027, 2, 18), null), 100));
+    }
+}
@@ -0,0 +1,140 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ReservationRequest;
+import dev.jesusjimenezg.kata.model.AppUser;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads booking overlapping one-hour slots of a single resource. Reports
+ * throughput and the latency of accepted and conflicting requests, and checks
+ * that every conflict surfaces as the overlap error. Needs the database from
+ * {@code compose.yaml}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ReservationBookingBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int SLOTS = 200;
+    private static final LocalDateTime BASE = LocalDateTime.of(2099, 1, 1, 0, 0);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private AppUser user;
+    private Resource resource;
+
+    @BeforeEach
+    void setUp() {
+        user = new AppUser();
+        user.setEmail("bench-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("-");
+        user.setRoles(Set.of(roleRepository.findByName("ADMIN").orElseThrow()));
+        user = appUserRepository.save(user);
+        resource = resourceRepository.findByActiveTrue().get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findByUserIdOrderByStartTimeDesc(user.getId()));
+        appUserRepository.delete(user);
+    }
+
+    @Test
+    void contendedBookings_serializeAndReportConflicts() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        long[] acceptedNs = new long[THREADS];
+        long[] conflictNs = new long[THREADS];
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime slot = BASE.plusHours(ThreadLocalRandom.current().nextInt(SLOTS));
+                    ReservationRequest request = new ReservationRequest(resource.getId(), slot, slot.plusHours(1),
+                            "benchmark");
+                    long begin = System.nanoTime();
+                    try {
+                        reservationService.create(request, principal);
+                        acceptedNs[thread] += System.nanoTime() - begin;
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException ex) {
+                        conflictNs[thread] += System.nanoTime() - begin;
+                        conflicts.incrementAndGet();
+                        assertEquals(ReservationConflicts.OVERLAP_MESSAGE, ex.getMessage());
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNs = System.nanoTime() - start;
+        pool.shutdown();
+
+        int total = THREADS * ATTEMPTS_PER_THREAD;
+        System.out.printf(
+                "Contended booking: %d requests in %d ms (%.0f req/s), accepted=%d (avg %d us), conflicts=%d (avg %d us)%n",
+                total, elapsedNs / 1_000_000, total / (elapsedNs / 1e9),
+                accepted.get(), average(acceptedNs, accepted.get()),
+                conflicts.get(), average(conflictNs, conflicts.get()));
+
+        assertEquals(total, accepted.get() + conflicts.get());
+        assertTrue(accepted.get() <= SLOTS);
+        assertEquals(accepted.get(), reservationRepository
+                .findActiveIntervalsInWindow(resource.getId(), BASE, BASE.plusHours(SLOTS)).size());
+    }
+
+    private static long average(long[] nanos, int count) {
+        long sum = 0;
+        for (long n : nanos) {
+            sum += n;
+        }
+        return count == 0 ? 0 : sum / count / 1_000;
+    }
+}
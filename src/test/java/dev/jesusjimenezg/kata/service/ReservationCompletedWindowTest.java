@@ -0,0 +1,99 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.AvailabilitySlot;
+import dev.jesusjimenezg.kata.dto.ReservationRequest;
+import dev.jesusjimenezg.kata.model.AppUser;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A completed reservation leaves the ACTIVE set, but its window cannot be
+ * booked again: the window has elapsed, availability reports it as taken and
+ * the booking path rejects starts in the past. Seeds an ended reservation and
+ * completes it inside a transaction that is rolled back. Needs the database
+ * from {@code compose.yaml}.
+ */
+@SpringBootTest
+class ReservationCompletedWindowTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationCompletionJob completionJob;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void completedReservation_windowStaysUnavailable() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            AuthenticatedUser principal = admin();
+            Resource resource = resourceRepository.findByActiveTrue().get(0);
+            LocalDateTime end = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusHours(1);
+            LocalDateTime start = end.minusHours(1);
+            UUID id = jdbcTemplate.queryForObject("""
+                    INSERT INTO reservation (resource_id, user_id, start_time, end_time, notes)
+                    VALUES (?, ?, ?, ?, 'completed') RETURNING id
+                    """, UUID.class, resource.getId(), principal.getId(), Timestamp.valueOf(start),
+                    Timestamp.valueOf(end));
+
+            assertTrue(completionJob.completeEnded(LocalDateTime.now()) > 0);
+            assertEquals("COMPLETED", jdbcTemplate.queryForObject(
+                    "SELECT status FROM reservation WHERE id = ?", String.class, id));
+
+            List<AvailabilitySlot> slots = reservationService.getAvailability(resource.getId(), start, end,
+                    principal);
+            assertFalse(slots.isEmpty());
+            assertTrue(slots.stream().noneMatch(AvailabilitySlot::available), slots.toString());
+
+            ReservationRequest again = new ReservationRequest(resource.getId(), start, end, "again");
+            assertThrows(IllegalArgumentException.class, () -> reservationService.create(again, principal));
+        });
+    }
+
+    private AuthenticatedUser admin() {
+        AppUser user = new AppUser();
+        user.setEmail("completed-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("-");
+        user.setRoles(Set.of(roleRepository.findByName("ADMIN").orElseThrow()));
+        user = appUserRepository.saveAndFlush(user);
+        return new AuthenticatedUser(user.getId(), user.getEmail(), "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,81 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.EndedReservation;
+import dev.jesusjimenezg.kata.repository.ReservationMaintenanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationCompletionJobTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 2, 16, 12, 0);
+    private static final UUID RESOURCE = UUID.randomUUID();
+    private static final UUID OWNER = UUID.randomUUID();
+
+    @Mock
+    private ReservationMaintenanceRepository maintenanceRepository;
+
+    @Mock
+    private ReservationIntervalIndex intervalIndex;
+
+    @Mock
+    private ReservationVersionTracker versionTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationCompletionJob job;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        job = new ReservationCompletionJob(maintenanceRepository, intervalIndex, versionTracker, transactionManager,
+                true, 2);
+    }
+
+    @Test
+    void completeEnded_walksChunksForwardByEndTime() {
+        EndedReservation first = ended(NOW.minusHours(5));
+        EndedReservation second = ended(NOW.minusHours(4));
+        EndedReservation third = ended(NOW.minusHours(1));
+        when(maintenanceRepository.completeEnded(NOW, LocalDateTime.of(1970, 1, 1, 0, 0), 2))
+                .thenReturn(List.of(second, first));
+        when(maintenanceRepository.completeEnded(NOW, second.endTime(), 2)).thenReturn(List.of(third));
+
+        int completed = job.completeEnded(NOW);
+
+        assertEquals(3, completed);
+        verify(intervalIndex).remove(RESOURCE, third.startTime(), third.endTime());
+        verify(versionTracker, times(3)).bumpUser(OWNER);
+        verify(maintenanceRepository, times(2)).completeEnded(any(), any(), anyInt());
+    }
+
+    @Test
+    void completeEnded_nothingDue_doesNotTouchMemory() {
+        when(maintenanceRepository.completeEnded(any(), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, job.completeEnded(NOW));
+        verify(versionTracker, never()).bump(any());
+    }
+
+    private static EndedReservation ended(LocalDateTime end) {
+        return new EndedReservation(UUID.randomUUID(), RESOURCE, OWNER, end.minusHours(1), end);
+    }
+}
@@ -0,0 +1,95 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ReservationExportRow;
+import dev.jesusjimenezg.kata.repository.ReservationExportFilter;
+import dev.jesusjimenezg.kata.repository.ReservationExportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 2, 16, 9, 0);
+    private static final ReservationExportFilter ANY = new ReservationExportFilter(null, null, null, null, null);
+
+    @Mock
+    private ReservationExportRepository exportRepository;
+
+    @Test
+    void export_csv_writesHeaderAndQuotesSpecialCharacters() throws Exception {
+        stubRows(row("Sala 101", "plain"), row("Sala \"A\", norte", "line one\nline two"));
+
+        String csv = export(ReservationExportService.Format.CSV);
+
+        String[] lines = csv.split("\n", -1);
+        assertEquals(ReservationExportService.CSV_HEADER, lines[0]);
+        assertTrue(lines[1].contains(",Sala 101,ROOM,"));
+        assertTrue(csv.contains(",\"Sala \"\"A\"\", norte\",ROOM,"));
+        assertTrue(csv.contains(",\"line one\nline two\","));
+        assertTrue(csv.endsWith("\n"));
+    }
+
+    @Test
+    void export_ndjson_writesOneObjectPerLine() throws Exception {
+        stubRows(row("Sala 101", null), row("Sala 102", null));
+
+        String ndjson = export(ReservationExportService.Format.NDJSON);
+
+        String[] lines = ndjson.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"resourceName\":\"Sala 101\""));
+        assertTrue(lines[1].contains("\"resourceName\":\"Sala 102\""));
+    }
+
+    @Test
+    void filter_toNotAfterFrom_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReservationExportFilter(START, START, null, null, null));
+    }
+
+    @Test
+    void format_unknown_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> ReservationExportService.Format.of("xml"));
+    }
+
+    private String export(ReservationExportService.Format format) throws Exception {
+        ReservationExportService service = new ReservationExportService(exportRepository,
+                JsonMapper.builder().build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(ANY, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(ReservationExportRow... rows) {
+        doAnswer(invocation -> {
+            Consumer<ReservationExportRow> sink = invocation.getArgument(1);
+            for (ReservationExportRow row : rows) {
+                sink.accept(row);
+            }
+            return null;
+        }).when(exportRepository).stream(eq(ANY), any(Consumer.class));
+    }
+
+    private static ReservationExportRow row(String resourceName, String notes) {
+        return new ReservationExportRow(UUID.randomUUID(), UUID.randomUUID(), resourceName, "ROOM",
+                UUID.randomUUID(), "john@example.com", START, START.plusHours(1), "ACTIVE", notes, null, null, null,
+                START.minusDays(1));
+    }
+}
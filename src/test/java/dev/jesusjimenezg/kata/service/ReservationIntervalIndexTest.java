@@ -0,0 +1,149 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ReservationInterval;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationIntervalIndexTest {
+
+    private static final UUID RESOURCE = UUID.randomUUID();
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 2, 12, 0, 0);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private ReservationIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReservationIntervalIndex(reservationRepository, true);
+    }
+
+    @Test
+    void mayOverlap_beforeWarmUp_alwaysDefersToDatabase() {
+        assertFalse(index.isReady());
+        assertTrue(index.mayOverlap(RESOURCE, at(9), at(10)));
+    }
+
+    @Test
+    void mayOverlap_afterWarmUp_usesHalfOpenIntervals() {
+        when(reservationRepository.findActiveIntervals()).thenReturn(List.of(
+                interval(14, 15),
+                interval(9, 10)));
+        index.warmUp();
+
+        assertTrue(index.mayOverlap(RESOURCE, at(9), at(10)));
+        assertTrue(index.mayOverlap(RESOURCE, DAY.plusMinutes(570), at(11)));
+        assertFalse(index.mayOverlap(RESOURCE, at(10), at(14)));
+        assertFalse(index.mayOverlap(RESOURCE, at(8), at(9)));
+        assertFalse(index.mayOverlap(UUID.randomUUID(), at(9), at(10)));
+    }
+
+    @Test
+    void mayOverlap_longIntervalCoversLaterStarts() {
+        when(reservationRepository.findActiveIntervals()).thenReturn(List.of(
+                interval(8, 18),
+                interval(9, 10)));
+        index.warmUp();
+
+        assertTrue(index.mayOverlap(RESOURCE, at(12), at(13)));
+    }
+
+    @Test
+    void addAndRemove_areIdempotent() {
+        when(reservationRepository.findActiveIntervals()).thenReturn(List.of());
+        index.warmUp();
+
+        index.add(RESOURCE, at(9), at(10));
+        index.add(RESOURCE, at(9), at(10));
+        assertEquals(1, index.findInWindow(RESOURCE, DAY, at(24)).size());
+
+        index.remove(RESOURCE, at(9), at(10));
+        index.remove(RESOURCE, at(9), at(10));
+        assertFalse(index.mayOverlap(RESOURCE, at(9), at(10)));
+    }
+
+    @Test
+    void findInWindow_returnsOverlappingIntervalsByStart() {
+        when(reservationRepository.findActiveIntervals()).thenReturn(List.of(
+                interval(16, 17),
+                interval(6, 7),
+                interval(11, 13),
+                interval(9, 10)));
+        index.warmUp();
+
+        List<ReservationInterval> found = index.findInWindow(RESOURCE, DAY.plusMinutes(570), at(16));
+
+        assertEquals(List.of(interval(9, 10), interval(11, 13)), found);
+    }
+
+    @Test
+    void warmUp_reloadsResourcesWrittenDuringLoad() {
+        when(reservationRepository.findActiveIntervals()).thenAnswer(invocation -> {
+            // A reservation commits while the bulk query is running
+            index.add(RESOURCE, at(9), at(10));
+            return List.of();
+        });
+        when(reservationRepository.findActiveIntervalsByResourceId(RESOURCE))
+                .thenReturn(List.of(interval(9, 10)));
+
+        index.warmUp();
+
+        assertTrue(index.mayOverlap(RESOURCE, at(9), at(10)));
+    }
+
+    @Test
+    void refresh_picksUpWritesOfOtherInstances() {
+        UUID other = UUID.randomUUID();
+        when(reservationRepository.findActiveIntervals())
+                .thenReturn(List.of(interval(9, 10)))
+                // Meanwhile another instance cancelled it and booked another resource
+                .thenReturn(List.of(new ReservationInterval(other, at(11), at(12))));
+        index.warmUp();
+
+        index.refresh();
+
+        assertFalse(index.mayOverlap(RESOURCE, at(9), at(10)));
+        assertTrue(index.mayOverlap(other, at(11), at(12)));
+    }
+
+    @Test
+    void refresh_keepsResourcesWrittenDuringLoad() {
+        when(reservationRepository.findActiveIntervals())
+                .thenReturn(List.of())
+                .thenAnswer(invocation -> {
+                    // Committed through this instance after the bulk query read its snapshot
+                    index.add(RESOURCE, at(9), at(10));
+                    return List.of();
+                });
+        when(reservationRepository.findActiveIntervalsByResourceId(RESOURCE))
+                .thenReturn(List.of(interval(9, 10)));
+        index.warmUp();
+
+        index.refresh();
+
+        assertTrue(index.mayOverlap(RESOURCE, at(9), at(10)));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static ReservationInterval interval(int startHour, int endHour) {
+        return new ReservationInterval(RESOURCE, at(startHour), at(endHour));
+    }
+}
@@ -0,0 +1,89 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ReservationRequest;
+import dev.jesusjimenezg.kata.model.AppUser;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overlaps between reservations stored in different monthly partitions, which
+ * no exclusion constraint sees, are still rejected by the booking path. Creates
+ * two far-future partitions and books inside a transaction that is rolled back.
+ * Needs the database from {@code compose.yaml}.
+ */
+@SpringBootTest
+class ReservationMonthBoundaryTest {
+
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2096, 6, 1, 0, 0);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void create_overlapWithReservationOfPreviousMonth_throwsConflict() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            for (String month : List.of("2096-05-01", "2096-06-01")) {
+                assertTrue(jdbcTemplate.queryForObject("SELECT create_reservation_partition(CAST(? AS DATE))",
+                        Boolean.class, month));
+            }
+            AuthenticatedUser principal = admin();
+            Resource resource = resourceRepository.findByActiveTrue().get(0);
+
+            // Stored in May's partition, ends in June
+            reservationService.create(new ReservationRequest(resource.getId(), MIDNIGHT.minusHours(1),
+                    MIDNIGHT.plusHours(1), "boundary"), principal);
+
+            // Would be stored in June's partition, whose constraint never sees the first one
+            ReservationRequest overlapping = new ReservationRequest(resource.getId(), MIDNIGHT,
+                    MIDNIGHT.plusMinutes(30), "boundary");
+            IllegalStateException ex = assertThrows(IllegalStateException.class,
+                    () -> reservationService.create(overlapping, principal));
+            assertEquals(ReservationConflicts.OVERLAP_MESSAGE, ex.getMessage());
+        });
+    }
+
+    private AuthenticatedUser admin() {
+        AppUser user = new AppUser();
+        user.setEmail("boundary-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("-");
+        user.setRoles(Set.of(roleRepository.findByName("ADMIN").orElseThrow()));
+        user = appUserRepository.save(user);
+        return new AuthenticatedUser(user.getId(), user.getEmail(), "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,52 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ReservationPartitionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationPartitionJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 11, 17);
+
+    @Mock
+    private ReservationPartitionRepository partitionRepository;
+
+    @Test
+    void createAhead_createsCurrentAndNextMonths() {
+        ReservationPartitionJob job = new ReservationPartitionJob(partitionRepository, true, 2, 0);
+        when(partitionRepository.createMonth(LocalDate.of(2026, 11, 1))).thenReturn(false);
+        when(partitionRepository.createMonth(LocalDate.of(2026, 12, 1))).thenReturn(false);
+        when(partitionRepository.createMonth(LocalDate.of(2027, 1, 1))).thenReturn(true);
+
+        assertEquals(1, job.createAhead(TODAY));
+    }
+
+    @Test
+    void archiveOld_passesFirstDayOfCutoffMonth() {
+        ReservationPartitionJob job = new ReservationPartitionJob(partitionRepository, true, 3, 12);
+        when(partitionRepository.archiveBefore(LocalDate.of(2025, 11, 1)))
+                .thenReturn(List.of("reservation_p2025_09", "reservation_p2025_10"));
+
+        assertEquals(List.of("reservation_p2025_09", "reservation_p2025_10"), job.archiveOld(TODAY));
+    }
+
+    @Test
+    void archiveOld_disabledByDefault() {
+        ReservationPartitionJob job = new ReservationPartitionJob(partitionRepository, true, 3, 0);
+
+        assertEquals(List.of(), job.archiveOld(TODAY));
+        verify(partitionRepository, never()).archiveBefore(any());
+    }
+}
@@ -0,0 +1,127 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ReservationRequest;
+import dev.jesusjimenezg.kata.dto.CursorPage;
+import dev.jesusjimenezg.kata.model.AppUser;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the reservation read endpoints cost one SQL statement each,
+ * however many reservations they return. Needs the database from
+ * {@code compose.yaml}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReservationReadStatementCountTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2098, 1, 1, 9, 0);
+    private static final int RESERVATIONS = 5;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private AppUser user;
+    private Resource resource;
+    private AuthenticatedUser principal;
+    private UUID reservationId;
+
+    @BeforeEach
+    void setUp() {
+        user = new AppUser();
+        user.setEmail("reads-" + UUID.randomUUID() + "@example.com");
+        user.setPasswordHash("-");
+        user.setRoles(Set.of(roleRepository.findByName("ADMIN").orElseThrow()));
+        user = appUserRepository.save(user);
+        resource = resourceRepository.findByActiveTrue().get(0);
+        principal = new AuthenticatedUser(user.getId(), user.getEmail(), "", true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        for (int i = 0; i < RESERVATIONS; i++) {
+            LocalDateTime start = BASE.plusDays(i);
+            reservationId = reservationService.create(
+                    new ReservationRequest(resource.getId(), start, start.plusHours(1), "reads"), principal).id();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findByUserIdOrderByStartTimeDesc(user.getId()));
+        appUserRepository.delete(user);
+    }
+
+    @Test
+    void findById_isOneStatement() {
+        assertEquals(1, statementsOf(() -> reservationService.findById(reservationId, principal)));
+    }
+
+    @Test
+    void findActiveByUser_isOneStatement() {
+        assertEquals(1, statementsOf(() -> reservationService.findActiveByUser(principal)));
+    }
+
+    @Test
+    void findAllActive_isOneStatement() {
+        assertEquals(1, statementsOf(() -> reservationService.findAllActive(principal)));
+    }
+
+    @Test
+    void findHistoryByUser_isOneStatement() {
+        assertEquals(1, statementsOf(() -> reservationService.findHistoryByUser(null, 3, principal)));
+    }
+
+    @Test
+    void findHistoryByResource_isOneStatement() {
+        assertEquals(1, statementsOf(
+                () -> reservationService.findHistoryByResource(resource.getId(), null, 3, principal)));
+    }
+
+    private long statementsOf(Supplier<?> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Object result = call.get();
+        long statements = statistics.getPrepareStatementCount();
+        // Guard against a vacuous pass on an empty result
+        if (result instanceof List<?> list) {
+            assertFalse(list.isEmpty());
+        } else if (result instanceof CursorPage<?> page) {
+            assertFalse(page.items().isEmpty());
+        }
+        return statements;
+    }
+}
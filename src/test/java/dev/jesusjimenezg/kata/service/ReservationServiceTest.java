@@ -0,0 +1,498 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.AutoAssignReservationRequest;
+import dev.jesusjimenezg.kata.dto.AvailabilityMatrix;
+import dev.jesusjimenezg.kata.dto.AvailabilitySlot;
+import dev.jesusjimenezg.kata.dto.BatchItemResult;
+import dev.jesusjimenezg.kata.dto.BatchReservationRequest;
+import dev.jesusjimenezg.kata.dto.BatchReservationResponse;
+import dev.jesusjimenezg.kata.dto.CursorPage;
+import dev.jesusjimenezg.kata.dto.RecurrenceRule;
+import dev.jesusjimenezg.kata.dto.RecurringReservationRequest;
+import dev.jesusjimenezg.kata.dto.ReservationRequest;
+import dev.jesusjimenezg.kata.dto.ReservationResponse;
+import dev.jesusjimenezg.kata.dto.ResourceAvailability;
+import dev.jesusjimenezg.kata.dto.SeriesCancellationResponse;
+import dev.jesusjimenezg.kata.model.AppUser;
+import dev.jesusjimenezg.kata.model.Reservation;
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.model.ResourceType;
+import dev.jesusjimenezg.kata.repository.AppUserRepository;
+import dev.jesusjimenezg.kata.repository.ReservationInterval;
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2096, 2, 13, 0, 0);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private AppUserRepository appUserRepository;
+
+    @Mock
+    private ResourcePermissionService permissionService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private ReservationIntervalIndex intervalIndex;
+
+    @Mock
+    private ResourceBookingLock bookingLock;
+
+    @Mock
+    private ReservationVersionTracker versionTracker;
+
+    @Mock
+    private AvailabilityCache availabilityCache;
+
+    private ReservationService reservationService;
+    private Resource resource;
+    private AppUser user;
+    private UserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService(reservationRepository, resourceRepository, appUserRepository,
+                permissionService, currentUserService, intervalIndex, bookingLock, versionTracker, availabilityCache, 3, 10);
+
+        ResourceType type = new ResourceType("ROOM", "Room");
+        type.setId(1);
+        resource = new Resource();
+        resource.setId(UUID.randomUUID());
+        resource.setName("Sala 101");
+        resource.setResourceType(type);
+        resource.setActive(true);
+
+        user = new AppUser();
+        user.setId(UUID.randomUUID());
+        user.setEmail("john@example.com");
+        principal = new User("john@example.com", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void createBatch_bestEffort_createsValidItemsAndReportsTheRest() {
+        stubResourceLookup();
+        when(reservationRepository.findActiveIntervalsInWindow(eq(resource.getId()), any(), any()))
+                .thenReturn(List.of(new ReservationInterval(resource.getId(), at(14, 30), at(15, 30))));
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(appUserRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(reservationRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Reservation> saved = invocation.getArgument(0);
+            saved.forEach(r -> r.setId(UUID.randomUUID()));
+            return saved;
+        });
+
+        BatchReservationResponse response = reservationService.createBatch(new BatchReservationRequest(List.of(
+                item(at(9, 0), at(10, 0)),
+                item(at(9, 30), at(10, 30)),
+                item(at(14, 0), at(15, 0)),
+                item(at(12, 0), at(11, 0))),
+                BatchReservationRequest.Mode.BEST_EFFORT), principal);
+
+        assertEquals(1, response.created());
+        assertEquals(3, response.failed());
+        assertEquals(List.of(201, 409, 409, 400), response.results().stream().map(BatchItemResult::status).toList());
+        assertNotNull(response.results().get(0).reservation());
+        verify(bookingLock).lockAll(Set.of(resource.getId()));
+        verify(intervalIndex).add(resource.getId(), at(9, 0), at(10, 0));
+        verify(versionTracker).bump(resource.getId());
+        verify(versionTracker).bumpUser(user.getId());
+    }
+
+    @Test
+    void createBatch_allOrNothing_createsNothingWhenAnItemFails() {
+        stubResourceLookup();
+        when(reservationRepository.findActiveIntervalsInWindow(eq(resource.getId()), any(), any()))
+                .thenReturn(List.of());
+
+        BatchReservationResponse response = reservationService.createBatch(new BatchReservationRequest(List.of(
+                item(at(9, 0), at(10, 0)),
+                item(at(9, 30), at(10, 30))), null), principal);
+
+        assertEquals(0, response.created());
+        assertEquals(List.of(424, 409), response.results().stream().map(BatchItemResult::status).toList());
+        verify(reservationRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void createBatch_forbiddenResourceType_isReportedPerItem() {
+        when(resourceRepository.findAllById(anyList())).thenReturn(List.of(resource));
+        when(permissionService.canAccessResourceType(principal, 1)).thenReturn(false);
+
+        BatchReservationResponse response = reservationService.createBatch(new BatchReservationRequest(List.of(
+                item(at(9, 0), at(10, 0))), BatchReservationRequest.Mode.BEST_EFFORT), principal);
+
+        assertEquals(403, response.results().get(0).status());
+        verify(bookingLock, never()).lockAll(any());
+    }
+
+    @Test
+    void createBatch_tooManyItems_throwsException() {
+        List<ReservationRequest> items = List.of(
+                item(at(8, 0), at(9, 0)),
+                item(at(9, 0), at(10, 0)),
+                item(at(10, 0), at(11, 0)),
+                item(at(11, 0), at(12, 0)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.createBatch(new BatchReservationRequest(items, null), principal));
+    }
+
+    @Test
+    void create_overlapFoundUnderTheLock_throwsConflictWithoutInserting() {
+        when(resourceRepository.findById(resource.getId())).thenReturn(Optional.of(resource));
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(appUserRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(reservationRepository.existsOverlapping(resource.getId(), at(9, 0), at(10, 0))).thenReturn(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> reservationService.create(item(at(9, 0), at(10, 0)), principal));
+        verify(bookingLock).lock(resource.getId());
+        verify(reservationRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void create_exclusionViolationOnInsert_throwsConflict() {
+        when(resourceRepository.findById(resource.getId())).thenReturn(Optional.of(resource));
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(appUserRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(reservationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("conflicting key value", "23P01")));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> reservationService.create(item(at(9, 0), at(10, 0)), principal));
+        assertEquals(ReservationConflicts.OVERLAP_MESSAGE, ex.getMessage());
+        verify(intervalIndex, never()).add(any(), any(), any());
+    }
+
+    @Test
+    void create_startInThePast_throwsException() {
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.create(item(start, start.plusHours(1)), principal));
+        assertEquals("Start time must not be in the past", ex.getMessage());
+        verify(reservationRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void create_longerThanTheMaximum_throwsException() {
+        ReservationRequest request = item(at(9, 0), at(9, 0).plus(Reservation.MAX_LENGTH).plusMinutes(1));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.create(request, principal));
+        assertEquals("A reservation may last at most 31 days", ex.getMessage());
+        verify(reservationRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBatch_startInThePast_isReportedPerItem() {
+        when(resourceRepository.findAllById(anyList())).thenReturn(List.of(resource));
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+
+        BatchReservationResponse response = reservationService.createBatch(new BatchReservationRequest(List.of(
+                item(start, start.plusHours(1))), BatchReservationRequest.Mode.BEST_EFFORT), principal);
+
+        assertEquals(400, response.results().get(0).status());
+        verify(bookingLock, never()).lockAll(any());
+    }
+
+    @Test
+    void closeElapsed_splitsTheFreeSlotAtNow() {
+        List<AvailabilitySlot> slots = List.of(
+                new AvailabilitySlot(at(8, 0), at(9, 0), true),
+                new AvailabilitySlot(at(9, 0), at(10, 0), false),
+                new AvailabilitySlot(at(10, 0), at(12, 0), true));
+
+        assertEquals(List.of(
+                new AvailabilitySlot(at(8, 0), at(9, 0), false),
+                new AvailabilitySlot(at(9, 0), at(10, 0), false),
+                new AvailabilitySlot(at(10, 0), at(11, 0), false),
+                new AvailabilitySlot(at(11, 0), at(12, 0), true)), ReservationService.closeElapsed(slots, at(11, 0)));
+        assertEquals(slots, ReservationService.closeElapsed(slots, at(7, 0)));
+    }
+
+    @Test
+    void createRecurring_conflictingOccurrence_throwsConflict() {
+        stubResourceLookup();
+        when(reservationRepository.findActiveIntervalsInWindow(eq(resource.getId()), any(), any()))
+                .thenReturn(List.of(new ReservationInterval(resource.getId(), at(9, 0).plusDays(1),
+                        at(10, 0).plusDays(1))));
+
+        RecurringReservationRequest request = new RecurringReservationRequest(resource.getId(), at(9, 0), at(10, 0),
+                null, new RecurrenceRule(RecurrenceRule.Frequency.DAILY, null, null, null, 3));
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createRecurring(request, principal));
+        verify(reservationRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void cancelSeries_byOwner_cancelsWithOneUpdate() {
+        UUID seriesId = UUID.randomUUID();
+        Reservation occurrence = new Reservation();
+        occurrence.setUser(user);
+        when(reservationRepository.findFirstBySeriesId(seriesId)).thenReturn(Optional.of(occurrence));
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(reservationRepository.findActiveIntervalsBySeriesId(seriesId))
+                .thenReturn(List.of(new ReservationInterval(resource.getId(), at(9, 0), at(10, 0))));
+        when(appUserRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(reservationRepository.cancelActiveBySeriesId(eq(seriesId), eq(user), any())).thenReturn(1);
+
+        SeriesCancellationResponse response = reservationService.cancelSeries(seriesId, principal);
+
+        assertEquals(1, response.cancelled());
+        verify(intervalIndex).remove(resource.getId(), at(9, 0), at(10, 0));
+        verify(versionTracker).bump(resource.getId());
+        verify(versionTracker).bumpUser(user.getId());
+    }
+
+    @Test
+    void cancelSeries_byOtherUser_throwsSecurityException() {
+        UUID seriesId = UUID.randomUUID();
+        Reservation occurrence = new Reservation();
+        occurrence.setUser(user);
+        when(reservationRepository.findFirstBySeriesId(seriesId)).thenReturn(Optional.of(occurrence));
+        when(currentUserService.idOf(principal)).thenReturn(UUID.randomUUID());
+
+        assertThrows(SecurityException.class, () -> reservationService.cancelSeries(seriesId, principal));
+        verify(reservationRepository, never()).cancelActiveBySeriesId(any(), any(), any());
+    }
+
+    @Test
+    void getAvailabilityForResources_buildsSlotsForEveryResourceInOnePass() {
+        Resource other = otherResource("Sala 102");
+        when(resourceRepository.findAllById(anyList())).thenReturn(List.of(other, resource));
+        when(permissionService.getAllowedResourceTypeIds(principal)).thenReturn(Set.of(1));
+        when(reservationRepository.findActiveIntervalsInWindowForResources(anyList(), eq(at(8, 0)), eq(at(12, 0))))
+                .thenReturn(List.of(
+                        new ReservationInterval(resource.getId(), at(7, 0), at(9, 0)),
+                        new ReservationInterval(resource.getId(), at(10, 0), at(11, 0))));
+
+        List<ResourceAvailability> result = reservationService.getAvailabilityForResources(
+                List.of(resource.getId(), other.getId()), null, at(8, 0), at(12, 0), principal);
+
+        assertEquals(List.of(resource.getId(), other.getId()),
+                result.stream().map(ResourceAvailability::resourceId).toList());
+        assertEquals(List.of(
+                new AvailabilitySlot(at(8, 0), at(9, 0), false),
+                new AvailabilitySlot(at(9, 0), at(10, 0), true),
+                new AvailabilitySlot(at(10, 0), at(11, 0), false),
+                new AvailabilitySlot(at(11, 0), at(12, 0), true)), result.get(0).slots());
+        assertEquals(List.of(new AvailabilitySlot(at(8, 0), at(12, 0), true)), result.get(1).slots());
+    }
+
+    @Test
+    void getAvailabilityMatrix_setsOneBitPerOccupiedBucket() {
+        Resource other = otherResource("Sala 102");
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1))).thenReturn(List.of(other, resource));
+        when(reservationRepository.findActiveIntervalsInWindowForResources(anyList(), eq(at(8, 0)), eq(at(10, 0))))
+                .thenReturn(List.of(
+                        new ReservationInterval(resource.getId(), at(8, 30), at(8, 45)),
+                        new ReservationInterval(other.getId(), at(9, 0), at(11, 0))));
+
+        AvailabilityMatrix matrix = reservationService.getAvailabilityMatrix(null, 1, at(8, 0), at(10, 0), 30,
+                principal);
+
+        assertEquals(4, matrix.bucketCount());
+        assertEquals(List.of(resource.getId(), other.getId()), matrix.resourceIds());
+        // Row 0 (Sala 101): bucket 1; row 1 (Sala 102): buckets 2 and 3 -> bits 1, 6, 7
+        assertArrayEquals(new byte[] { (byte) 0b1100_0010 }, Base64.getDecoder().decode(matrix.occupancy()));
+    }
+
+    @Test
+    void getAvailabilityMatrix_tooManyCells_throwsException() {
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1)))
+                .thenReturn(List.of(resource, otherResource("Sala 102")));
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.getAvailabilityMatrix(null, 1,
+                at(0, 0), at(0, 0).plusYears(1), 1, principal));
+    }
+
+    @Test
+    void getAvailabilityMatrix_tooManyBucketsForAnEmptyType_throwsException() {
+        // No resources would make the cell count 0; the bucket count alone must be rejected
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> reservationService.getAvailabilityMatrix(null, 1, at(0, 0), at(0, 0).plusYears(5000), 1,
+                        principal));
+        assertEquals("An availability matrix may have at most 1048576 buckets; "
+                + "use a larger bucket or a shorter window", ex.getMessage());
+        verify(resourceRepository, never()).findByActiveTrueAndResourceTypeIdIn(any());
+    }
+
+    @Test
+    void createAnyOfType_skipsBusyAndContendedResources() {
+        Resource busy = otherResource("Sala 100");
+        Resource free = otherResource("Sala 102");
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1)))
+                .thenReturn(List.of(free, resource, busy));
+        when(intervalIndex.isReady()).thenReturn(true);
+        when(intervalIndex.mayOverlap(busy.getId(), at(9, 0), at(10, 0))).thenReturn(true);
+        when(bookingLock.tryLock(resource.getId(), Duration.ZERO)).thenReturn(false);
+        when(bookingLock.tryLock(free.getId(), Duration.ZERO)).thenReturn(true);
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(appUserRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(reservationRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+
+        ReservationResponse response = reservationService.createAnyOfType(
+                new AutoAssignReservationRequest(1, at(9, 0), at(10, 0), null), principal);
+
+        assertEquals(free.getId(), response.resourceId());
+        verify(bookingLock, never()).tryLock(eq(busy.getId()), any());
+        verify(intervalIndex).add(free.getId(), at(9, 0), at(10, 0));
+    }
+
+    @Test
+    void createAnyOfType_noFreeResource_throwsConflict() {
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1))).thenReturn(List.of(resource));
+        when(reservationRepository.existsOverlapping(resource.getId(), at(9, 0), at(10, 0))).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createAnyOfType(
+                new AutoAssignReservationRequest(1, at(9, 0), at(10, 0), null), principal));
+        verify(reservationRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createAnyOfType_bookedElsewhere_isNotLockedDespiteTheIndex() {
+        Resource free = otherResource("Sala 102");
+        when(resourceRepository.findByActiveTrueAndResourceTypeIdIn(List.of(1))).thenReturn(List.of(free, resource));
+        // The local index has not seen the booking another instance made on Sala 101
+        when(intervalIndex.isReady()).thenReturn(true);
+        when(reservationRepository.existsOverlapping(resource.getId(), at(9, 0), at(10, 0))).thenReturn(true);
+        when(reservationRepository.existsOverlapping(free.getId(), at(9, 0), at(10, 0))).thenReturn(false);
+        when(bookingLock.tryLock(free.getId(), Duration.ZERO)).thenReturn(true);
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(appUserRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(reservationRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(UUID.randomUUID());
+            return saved;
+        });
+
+        ReservationResponse response = reservationService.createAnyOfType(
+                new AutoAssignReservationRequest(1, at(9, 0), at(10, 0), null), principal);
+
+        assertEquals(free.getId(), response.resourceId());
+        verify(bookingLock, never()).tryLock(eq(resource.getId()), any());
+    }
+
+    @Test
+    void findHistoryByResource_followsTheCursorOfTheLastRow() {
+        ReservationResponse newest = historyRow(at(11, 0));
+        ReservationResponse middle = historyRow(at(10, 0));
+        ReservationResponse oldest = historyRow(at(9, 0));
+        when(currentUserService.idOf(principal)).thenReturn(user.getId());
+        when(reservationRepository.findResourceHistory(resource.getId(), user.getId(), Limit.of(3)))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(reservationRepository.findResourceHistoryAfter(resource.getId(), user.getId(), at(10, 0), middle.id(),
+                Limit.of(3))).thenReturn(List.of(oldest));
+
+        CursorPage<ReservationResponse> first = reservationService.findHistoryByResource(resource.getId(), null, 2,
+                principal);
+        CursorPage<ReservationResponse> second = reservationService.findHistoryByResource(resource.getId(),
+                first.nextCursor(), 2, principal);
+
+        assertEquals(List.of(newest, middle), first.items());
+        assertEquals(List.of(oldest), second.items());
+        assertNull(second.nextCursor());
+        verify(resourceRepository, never()).findById(any());
+    }
+
+    @Test
+    void findHistoryByResource_emptyPageOfForbiddenType_throwsAccessDenied() {
+        when(reservationRepository.findResourceHistory(eq(resource.getId()), any(), eq(Limit.of(11))))
+                .thenReturn(List.of());
+        when(resourceRepository.findById(resource.getId())).thenReturn(Optional.of(resource));
+        doThrow(new AccessDeniedException("denied")).when(permissionService).checkAccess(principal, 1);
+
+        assertThrows(AccessDeniedException.class,
+                () -> reservationService.findHistoryByResource(resource.getId(), null, 10, principal));
+    }
+
+    @Test
+    void findById_invisibleExistingReservation_throwsAccessDenied() {
+        UUID id = UUID.randomUUID();
+        when(reservationRepository.findResponseVisibleTo(eq(id), any())).thenReturn(Optional.empty());
+        when(reservationRepository.existsById(id)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () -> reservationService.findById(id, principal));
+    }
+
+    @Test
+    void findHistoryByUser_malformedCursor_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.findHistoryByUser("not a cursor", 10, principal));
+    }
+
+    private void stubResourceLookup() {
+        when(resourceRepository.findAllById(anyList())).thenReturn(List.of(resource));
+        when(permissionService.canAccessResourceType(principal, 1)).thenReturn(true);
+    }
+
+    private Resource otherResource(String name) {
+        Resource other = new Resource();
+        other.setId(UUID.randomUUID());
+        other.setName(name);
+        other.setResourceType(resource.getResourceType());
+        other.setActive(true);
+        return other;
+    }
+
+    private ReservationResponse historyRow(LocalDateTime start) {
+        return new ReservationResponse(UUID.randomUUID(), resource.getId(), resource.getName(), user.getId(),
+                user.getEmail(), start, start.plusHours(1), "ACTIVE", null, null, null, start, start, null);
+    }
+
+    private ReservationRequest item(LocalDateTime start, LocalDateTime end) {
+        return new ReservationRequest(resource.getId(), start, end, null);
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.withHour(hour).withMinute(minute);
+    }
+}
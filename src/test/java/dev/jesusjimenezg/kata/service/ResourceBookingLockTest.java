@@ -0,0 +1,101 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceBookingLockTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void lockAll_takesAdvisoryLocksInKeyOrder() {
+        ResourceBookingLock lock = new ResourceBookingLock(reservationRepository);
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+
+        inTransaction(() -> lock.lockAll(List.of(third, first, second)));
+
+        InOrder order = inOrder(reservationRepository);
+        order.verify(reservationRepository).acquireResourceLock(ResourceBookingLock.advisoryKey(first));
+        order.verify(reservationRepository).acquireResourceLock(ResourceBookingLock.advisoryKey(second));
+        order.verify(reservationRepository).acquireResourceLock(ResourceBookingLock.advisoryKey(third));
+    }
+
+    @Test
+    void lockAll_batchesWhoseStripesCross_doNotDeadlock() {
+        ResourceBookingLock lock = new ResourceBookingLock(reservationRepository);
+        // Two batches whose resources share stripes in opposite ID order: a < b and
+        // c < d, but stripe(a) == stripe(d) and stripe(b) == stripe(c)
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        while (stripe(b) == stripe(a)) {
+            b = UUID.randomUUID();
+        }
+        if (b.compareTo(a) < 0) {
+            UUID swap = a;
+            a = b;
+            b = swap;
+        }
+        UUID c;
+        UUID d;
+        do {
+            c = inStripe(stripe(b));
+            d = inStripe(stripe(a));
+        } while (c.compareTo(d) > 0);
+        List<UUID> oneBatch = List.of(a, b);
+        List<UUID> otherBatch = List.of(c, d);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            CompletableFuture<Void> one = CompletableFuture.runAsync(() -> repeat(lock, oneBatch));
+            CompletableFuture<Void> other = CompletableFuture.runAsync(() -> repeat(lock, otherBatch));
+            CompletableFuture.allOf(one, other).join();
+        });
+    }
+
+    private static void repeat(ResourceBookingLock lock, List<UUID> batch) {
+        for (int i = 0; i < 10_000; i++) {
+            inTransaction(() -> lock.lockAll(batch));
+        }
+    }
+
+    private static UUID inStripe(int stripe) {
+        UUID id;
+        do {
+            id = UUID.randomUUID();
+        } while (stripe(id) != stripe);
+        return id;
+    }
+
+    private static int stripe(UUID id) {
+        return ResourceBookingLock.stripeIndex(id);
+    }
+
+    /** Runs {@code work} as if inside a transaction, releasing its locks as a commit would. */
+    private static void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+}
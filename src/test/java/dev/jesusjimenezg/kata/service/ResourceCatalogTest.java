@@ -0,0 +1,76 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.model.Resource;
+import dev.jesusjimenezg.kata.model.ResourceType;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.ResourceTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceCatalogTest {
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    @Mock
+    private ResourceTypeRepository resourceTypeRepository;
+
+    private ResourceCatalog catalog;
+    private ResourceType room;
+    private Resource resource;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ResourceCatalog(resourceRepository, resourceTypeRepository, true);
+        room = new ResourceType("ROOM", "Room");
+        room.setId(1);
+        resource = new Resource();
+        resource.setId(UUID.randomUUID());
+        resource.setName("Sala 101");
+        resource.setResourceType(room);
+        resource.setActive(true);
+        resource.setCreatedAt(LocalDateTime.of(2026, 2, 1, 9, 0));
+        when(resourceRepository.findAll()).thenReturn(List.of(resource));
+        when(resourceTypeRepository.findAll()).thenReturn(List.of(room));
+    }
+
+    @Test
+    void refresh_unchangedCatalog_keepsVersion() {
+        catalog.warmUp();
+        long loaded = catalog.version();
+
+        catalog.refresh();
+
+        assertEquals(loaded, catalog.version());
+    }
+
+    @Test
+    void refresh_changedResourceOrType_bumpsVersion() {
+        catalog.warmUp();
+        long loaded = catalog.version();
+
+        resource.setLocation("Planta 2");
+        catalog.refresh();
+        long afterResource = catalog.version();
+
+        ResourceType vehicle = new ResourceType("VEHICLE", "Vehicle");
+        vehicle.setId(2);
+        when(resourceTypeRepository.findAll()).thenReturn(List.of(room, vehicle));
+        catalog.refresh();
+
+        assertEquals(loaded + 1, afterResource);
+        assertEquals(afterResource + 1, catalog.version());
+        assertEquals("Planta 2", catalog.snapshot().get(resource.getId()).location());
+    }
+}
@@ -0,0 +1,109 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import dev.jesusjimenezg.kata.dto.ResourceTypeResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceCursorTest {
+
+    private static final ResourceTypeResponse ROOM = new ResourceTypeResponse(1, "ROOM", null);
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 2, 1, 9, 30, 15, 123_000_000);
+
+    @Test
+    void decode_nameCursor_roundTripsNamesWithTheSeparator() {
+        ResourceResponse last = resource("Sala | B | 2", CREATED);
+        String encoded = ResourceCursor.after(ResourceSort.NAME, last, 10).encode();
+
+        ResourceCursor decoded = ResourceCursor.decode(encoded, ResourceSort.NAME);
+
+        assertEquals("Sala | B | 2", decoded.key());
+        assertEquals(last.id(), decoded.id());
+    }
+
+    @Test
+    void decode_createdAtCursor_roundTripsTimeAndId() {
+        ResourceResponse last = resource("Sala 101", CREATED);
+        String encoded = ResourceCursor.after(ResourceSort.CREATED_AT_DESC, last, 10).encode();
+
+        ResourceCursor decoded = ResourceCursor.decode(encoded, ResourceSort.CREATED_AT_DESC);
+
+        assertEquals(CREATED, decoded.createdAt());
+        assertEquals(last.id(), decoded.id());
+    }
+
+    @Test
+    void decode_relevanceCursor_keepsTheOffset() {
+        String encoded = ResourceCursor.after(ResourceSort.RELEVANCE, resource("Sala 101", CREATED), 40).encode();
+
+        assertEquals(40, ResourceCursor.decode(encoded, ResourceSort.RELEVANCE).offset());
+    }
+
+    @Test
+    void decode_cursorOfAnotherSort_throws() {
+        String encoded = ResourceCursor.after(ResourceSort.NAME, resource("Sala 101", CREATED), 10).encode();
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ResourceCursor.decode(encoded, ResourceSort.NAME_DESC));
+        assertEquals("Cursor does not match the sort order", ex.getMessage());
+    }
+
+    @Test
+    void decode_malformedCursors_throwInvalidCursor() {
+        UUID id = UUID.randomUUID();
+        Map<String, ResourceSort> malformed = Map.of(
+                "not base64!", ResourceSort.NAME,
+                raw("name"), ResourceSort.NAME,
+                raw("name|" + id), ResourceSort.NAME,
+                raw("name|Sala|not-a-uuid"), ResourceSort.NAME,
+                raw("createdAt|yesterday|" + id), ResourceSort.CREATED_AT,
+                raw("relevance|-5|" + id), ResourceSort.RELEVANCE,
+                raw("relevance|many|" + id), ResourceSort.RELEVANCE);
+
+        malformed.forEach((cursor, sort) -> {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> ResourceCursor.decode(cursor, sort), cursor);
+            assertEquals("Invalid cursor", ex.getMessage(), cursor);
+        });
+    }
+
+    @Test
+    void compareTo_ordersNamesByCodePoint() {
+        ResourceCursor after = ResourceCursor.after(ResourceSort.NAME, resource("Zeta", CREATED), 1);
+
+        // Upper case before lower case, accented letters after both, as COLLATE "C" sorts them
+        assertTrue(after.compareTo(resource("alfa", CREATED)) < 0);
+        assertTrue(after.compareTo(resource("Ábaco", CREATED)) < 0);
+        assertTrue(after.compareTo(resource("Alfa", CREATED)) > 0);
+        // A supplementary character sorts after U+FF21, unlike with String.compareTo
+        ResourceCursor fullWidth = ResourceCursor.after(ResourceSort.NAME, resource("\uFF21", CREATED), 1);
+        assertTrue(fullWidth.compareTo(resource("\uD83D\uDE00", CREATED)) < 0);
+    }
+
+    @Test
+    void compareTo_tiesCreationTimesById() {
+        UUID lower = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+        UUID higher = UUID.fromString("00000000-0000-0000-0000-0000000000b0");
+        ResourceCursor after = new ResourceCursor(ResourceSort.CREATED_AT, CREATED.toString(), lower);
+
+        assertTrue(after.compareTo(new ResourceResponse(higher, "Sala", null, ROOM, null, true, CREATED, null)) < 0);
+        assertTrue(after.compareTo(resource("Sala", CREATED.minusSeconds(1))) > 0);
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResourceResponse resource(String name, LocalDateTime createdAt) {
+        return new ResourceResponse(UUID.randomUUID(), name, null, ROOM, null, true, createdAt, null);
+    }
+}
@@ -0,0 +1,130 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.dto.CursorPage;
+import dev.jesusjimenezg.kata.dto.ResourceResponse;
+import dev.jesusjimenezg.kata.model.ResourceType;
+import dev.jesusjimenezg.kata.repository.ResourceRepository;
+import dev.jesusjimenezg.kata.repository.ResourceTypeRepository;
+import dev.jesusjimenezg.kata.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The resource listing served from PostgreSQL (catalog disabled) pages in the
+ * same order as the in-memory catalog, so a cursor from either one continues
+ * correctly in the other. Seeds names whose order depends on the collation and
+ * creation times that tie, inside a transaction that is rolled back. Needs the
+ * database from {@code compose.yaml}.
+ */
+@SpringBootTest(properties = "app.resources.catalog.enabled=false")
+class ResourceListingOrderTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private ResourceTypeRepository resourceTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void search_fromDatabase_pagesLikeTheCatalog() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            String tag = UUID.randomUUID().toString().substring(0, 8);
+            LocalDateTime tied = LocalDateTime.of(2026, 3, 1, 12, 0);
+            List<UUID> seeded = List.of(
+                    resource("Zeta " + tag, tied),
+                    resource("_nota " + tag, tied),
+                    resource("alfa " + tag, tied.minusDays(1)),
+                    resource("Ábaco " + tag, tied.plusDays(1)));
+            AuthenticatedUser admin = admin();
+            CatalogSnapshot snapshot = CatalogSnapshot.of(
+                    resourceRepository.findAll().stream().map(ResourceService::toResponse).toList(), 1);
+
+            for (ResourceSort sort : List.of(ResourceSort.NAME, ResourceSort.NAME_DESC, ResourceSort.CREATED_AT,
+                    ResourceSort.CREATED_AT_DESC)) {
+                List<UUID> listed = pageThrough(snapshot, sort, admin);
+                assertEquals(resourceRepository.count(), listed.size(), sort.param());
+                if (sort == ResourceSort.NAME) {
+                    // Code point order: upper case, then '_', then lower case, then accented letters
+                    assertEquals(seeded, listed.stream().filter(seeded::contains).toList());
+                }
+            }
+        });
+    }
+
+    /**
+     * Pages through the database listing, checking each page against the
+     * catalog's page for the same cursor; returns the IDs in listing order.
+     */
+    private List<UUID> pageThrough(CatalogSnapshot snapshot, ResourceSort sort, AuthenticatedUser admin) {
+        long[] allTypes = allTypes();
+        List<UUID> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ResourceResponse> page = resourceService.search(null, null, null, sort.param(), cursor,
+                    PAGE_SIZE, admin);
+            ResourceCursor after = cursor == null ? null : ResourceCursor.decode(cursor, sort);
+            List<ResourceResponse> expected = snapshot.page(allTypes, false, null, sort, after, PAGE_SIZE);
+            assertEquals(ids(expected), ids(page.items()), sort.param() + " after " + cursor);
+            assertFalse(page.items().isEmpty(), sort.param());
+            listed.addAll(ids(page.items()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return listed;
+    }
+
+    private long[] allTypes() {
+        int maxId = resourceTypeRepository.findAll().stream().mapToInt(ResourceType::getId).max().orElse(0);
+        long[] mask = new long[(maxId >>> 6) + 1];
+        for (ResourceType type : resourceTypeRepository.findAll()) {
+            mask[type.getId() >>> 6] |= 1L << type.getId();
+        }
+        return mask;
+    }
+
+    private static List<UUID> ids(List<ResourceResponse> rows) {
+        return rows.stream().map(ResourceResponse::id).toList();
+    }
+
+    private UUID resource(String name, LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO resource (name, resource_type_id, active, created_at)
+                SELECT ?, id, TRUE, ? FROM resource_type WHERE name = 'ROOM'
+                RETURNING id
+                """, UUID.class, name, Timestamp.valueOf(createdAt));
+    }
+
+    private AuthenticatedUser admin() {
+        UUID id = UUID.randomUUID();
+        String email = "listing-" + id + "@example.com";
+        jdbcTemplate.update("INSERT INTO app_user (id, email, password_hash) VALUES (?, ?, '-')", id, email);
+        jdbcTemplate.update("INSERT INTO user_role (user_id, role_id) SELECT ?, id FROM role WHERE name = 'ADMIN'",
+                id);
+        return new AuthenticatedUser(id, email, "", true, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+}
@@ -0,0 +1,107 @@
+package dev.jesusjimenezg.kata.service;
+
+import dev.jesusjimenezg.kata.repository.ResourceTypeRepository;
+import dev.jesusjimenezg.kata.repository.ResourceTypeRepository.RolePermission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourcePermissionServiceTest {
+
+    @Mock
+    private ResourceTypeRepository resourceTypeRepository;
+
+    @InjectMocks
+    private ResourcePermissionService permissionService;
+
+    @BeforeEach
+    void setUp() {
+        when(resourceTypeRepository.findAllRolePermissions()).thenReturn(List.of(
+                permission("USER", 1),
+                permission("EMPLOYEE", 1),
+                permission("EMPLOYEE", 2),
+                permission("ADMIN", 1),
+                permission("ADMIN", 2),
+                permission("ADMIN", 70)));
+    }
+
+    @Test
+    void getAllowedResourceTypeIds_unionOfRoles() {
+        UserDetails user = user("ROLE_USER", "ROLE_EMPLOYEE");
+
+        assertEquals(Set.of(1, 2), permissionService.getAllowedResourceTypeIds(user));
+        assertEquals(Set.of(1, 2, 70), permissionService.getAllowedResourceTypeIds(user("ROLE_ADMIN")));
+    }
+
+    @Test
+    void checkAccess_allowedAndDeniedTypes() {
+        UserDetails user = user("ROLE_USER");
+
+        assertDoesNotThrow(() -> permissionService.checkAccess(user, 1));
+        assertThrows(AccessDeniedException.class, () -> permissionService.checkAccess(user, 2));
+        assertTrue(permissionService.canAccessResourceType(user("ROLE_ADMIN"), 70));
+        assertFalse(permissionService.canAccessResourceType(user("ROLE_ADMIN"), 71));
+    }
+
+    @Test
+    void checks_areServedFromMemory() {
+        UserDetails user = user("ROLE_EMPLOYEE");
+
+        permissionService.checkAccess(user, 1);
+        permissionService.getAllowedResourceTypeIds(user);
+        permissionService.canAccessResourceType(user, 2);
+
+        verify(resourceTypeRepository, times(1)).findAllRolePermissions();
+    }
+
+    @Test
+    void invalidate_outsideTransaction_reloadsImmediately() {
+        permissionService.checkAccess(user("ROLE_USER"), 1);
+        when(resourceTypeRepository.findAllRolePermissions()).thenReturn(List.of(permission("USER", 3)));
+
+        permissionService.invalidate();
+
+        assertEquals(Set.of(3), permissionService.getAllowedResourceTypeIds(user("ROLE_USER")));
+    }
+
+    private static UserDetails user(String... authorities) {
+        return new User("john@example.com", "", Arrays.stream(authorities)
+                .map(SimpleGrantedAuthority::new)
+                .toList());
+    }
+
+    private static RolePermission permission(String role, int typeId) {
+        return new RolePermission() {
+            @Override
+            public String getRoleName() {
+                return role;
+            }
+
+            @Override
+            public Integer getResourceTypeId() {
+                return typeId;
+            }
+        };
+    }
+}
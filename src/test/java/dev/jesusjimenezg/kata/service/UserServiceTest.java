@@ -7,6 +7,7 @@ import dev.jesusjimenezg.kata.model.AppUser;
 import dev.jesusjimenezg.kata.model.Role;
 import dev.jesusjimenezg.kata.repository.AppUserRepository;
 import dev.jesusjimenezg.kata.repository.RoleRepository;
+import dev.jesusjimenezg.kata.security.UserStatusCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -44,6 +45,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserStatusCache userStatusCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -169,6 +173,7 @@ class UserServiceTest {
 
         assertNotNull(result);
         verify(appUserRepository).save(any(AppUser.class));
+        verify(userStatusCache).markChanged("john@example.com");
     }
 
     @Test
@@ -190,6 +195,7 @@ class UserServiceTest {
 
         assertFalse(sampleUser.isEnabled());
         verify(appUserRepository).save(sampleUser);
+        verify(userStatusCache).markChanged("john@example.com");
     }
 
     @Test